@@ -0,0 +1,198 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.services.SentimentAnalysisService.SentimentResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH suite for the sentiment engine: mvn -Pbenchmark test-compile exec:exec
+ * <p>
+ * Covers single-text scoring, batch scoring (cold and behind the Caffeine cache), the cache key
+ * ({@link SentimentScorer#cacheKey}, paid on every lookup) and raw lexicon lookups, over
+ * headline-, description- and article-sized texts.
+ * {@link #main} runs everything at 1, 2 and 4 threads with the GC profiler and ends with a table
+ * of ops/s and bytes allocated per op. Plain JMH options pass through -Djmh.args.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SentimentBenchmark {
+
+    private static final int CORPUS_SIZE = 1024;
+    private static final int BATCH_SIZE = 256;
+    private static final int[] THREAD_COUNTS = {1, 2, 4};
+
+    @Param({"HEADLINE", "DESCRIPTION", "ARTICLE"})
+    public SentimentCorpus.Kind kind;
+
+    private List<String> texts;
+    private List<String> words;
+    private SentimentLexicon lexicon;
+    private SentimentAnalysisService service;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        texts = SentimentCorpus.texts(kind, CORPUS_SIZE);
+        words = SentimentCorpus.words(texts);
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        // No cache: every call scores
+        service = newService(new NoOpCacheManager(), pool);
+        lexicon = service.getLexicon();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    // Each benchmark thread walks the corpus from its own position
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next(int size) {
+            int index = next;
+            next = index + 1 == size ? 0 : index + 1;
+            return index;
+        }
+    }
+
+    // Batches are slices of the corpus, scored cold or with every text already cached
+    @State(Scope.Benchmark)
+    public static class Batches {
+
+        @Param({"none", "caffeine"})
+        public String cache;
+
+        private SentimentAnalysisService service;
+        private ForkJoinPool pool;
+        private List<List<String>> batches;
+
+        @Setup(Level.Trial)
+        public void setUp(SentimentBenchmark benchmark) {
+            pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+            service = "caffeine".equals(cache)
+                    ? newService(new CaffeineCacheManager("sentimentCache"), pool)
+                    : benchmark.service;
+            batches = new ArrayList<>();
+            for (int from = 0; from + BATCH_SIZE <= benchmark.texts.size(); from += BATCH_SIZE) {
+                batches.add(benchmark.texts.subList(from, from + BATCH_SIZE));
+            }
+            batches.forEach(service::analyzeBatch);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public SentimentResult analyzeSentiment(Cursor cursor) {
+        return service.analyzeSentiment(texts.get(cursor.next(texts.size())));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<SentimentResult> analyzeBatch(Batches batches, Cursor cursor) {
+        return batches.service.analyzeBatch(batches.batches.get(cursor.next(batches.batches.size())));
+    }
+
+    @Benchmark
+    public long cacheKey(Cursor cursor) {
+        return SentimentScorer.cacheKey(texts.get(cursor.next(texts.size())));
+    }
+
+    @Benchmark
+    public int lexiconLookup(Cursor cursor) {
+        return lexicon.lookup(words.get(cursor.next(words.size())));
+    }
+
+    static SentimentAnalysisService newService(CacheManager cacheManager, ForkJoinPool pool) {
+        SentimentAnalysisService service = new SentimentAnalysisService();
+        ReflectionTestUtils.setField(service, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(service, "sentimentForkJoinPool", pool);
+        ReflectionTestUtils.setField(service, "newsMetrics", new NewsMetrics(new SimpleMeterRegistry()));
+        service.initializeLexicons();
+        return service;
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions options = new CommandLineOptions(args);
+        // -t on the command line pins a single thread count instead of the sweep
+        int[] threadCounts = options.getThreads().hasValue() ? new int[] {options.getThreads().get()} : THREAD_COUNTS;
+
+        List<RunResult> results = new ArrayList<>();
+        List<Integer> runThreads = new ArrayList<>();
+        for (int threads : threadCounts) {
+            ChainedOptionsBuilder builder = new OptionsBuilder().parent(options)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class);
+            if (options.getIncludes().isEmpty()) {
+                builder.include(SentimentBenchmark.class.getSimpleName());
+            }
+            for (RunResult result : new Runner(builder.build()).run()) {
+                results.add(result);
+                runThreads.add(threads);
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-18s %-12s %-9s %7s %16s %12s%n", "Benchmark", "Kind", "Cache", "Threads", "ops/s", "B/op");
+        for (int i = 0; i < results.size(); i++) {
+            RunResult result = results.get(i);
+            String name = result.getParams().getBenchmark();
+            String cache = result.getParams().getParam("cache");
+            System.out.printf("%-18s %-12s %-9s %7d %16.0f %12.1f%n",
+                    name.substring(name.lastIndexOf('.') + 1),
+                    result.getParams().getParam("kind"),
+                    cache != null ? cache : "-",
+                    runThreads.get(i),
+                    result.getPrimaryResult().getScore(),
+                    allocatedPerOp(result.getSecondaryResults()));
+        }
+    }
+
+    private static double allocatedPerOp(Map<String, Result> secondary) {
+        for (Map.Entry<String, Result> entry : secondary.entrySet()) {
+            if (entry.getKey().endsWith("gc.alloc.rate.norm")) {
+                return entry.getValue().getScore();
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,62 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.models.NewsArticle;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Texts for the sentiment benchmarks, drawn from {@link MockNewsService}'s headline sets and
+ * description templates with a fixed seed, so every run scores the same corpus.
+ */
+public final class SentimentCorpus {
+
+    public enum Kind {
+        HEADLINE,    // Title only, ~6-10 words
+        DESCRIPTION, // Template around the headline, ~15-20 words
+        ARTICLE      // Title plus description, what the pipeline actually scores
+    }
+
+    private static final long SEED = 42;
+    private static final String[] COUNTRIES = {"us", "gb", "ca", "au", "in", "de", "fr"};
+
+    private SentimentCorpus() {
+    }
+
+    static List<String> texts(Kind kind, int size) {
+        MockNewsService mockNewsService = new MockNewsService();
+        ReflectionTestUtils.setField(mockNewsService, "random", new Random(SEED));
+
+        List<String> texts = new ArrayList<>(size);
+        int perCountry = (size + COUNTRIES.length - 1) / COUNTRIES.length;
+        for (String country : COUNTRIES) {
+            for (NewsArticle article : mockNewsService.generateMockNews(country, perCountry)) {
+                if (texts.size() == size) {
+                    return texts;
+                }
+                texts.add(switch (kind) {
+                    case HEADLINE -> article.getTitle();
+                    case DESCRIPTION -> article.getDescription();
+                    case ARTICLE -> SentimentAnalysisService.buildAnalysisText(article);
+                });
+            }
+        }
+        return texts;
+    }
+
+    // Lowercased whitespace-separated words of the texts, as the lexicon sees them
+    static List<String> words(List<String> texts) {
+        List<String> words = new ArrayList<>();
+        for (String text : texts) {
+            for (String word : text.toLowerCase().split("\\s+")) {
+                String stripped = word.replaceAll("[^a-z0-9]", "");
+                if (stripped.length() > 1) {
+                    words.add(stripped);
+                }
+            }
+        }
+        return words;
+    }
+}
@@ -1,30 +1,72 @@
 package com.newsanalyzer.api.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
 
 @Configuration
 public class AsyncConfig implements AsyncConfigurer {
     
+    // platform: small bounded pools (CallerRuns when full)
+    // virtual: virtual threads for I/O-bound work, one platform thread per core for CPU-bound work
+    @Value("${async.mode:platform}")
+    private String mode;
+    
+    // Virtual mode: most CPU-bound tasks waiting for a core; past that submissions are rejected
+    @Value("${async.cpu.queueCapacity:256}")
+    private int cpuQueueCapacity;
+    
+    // Virtual mode: most I/O-bound tasks running at once (the rest wait on a semaphore)
+    @Value("${async.io.maxConcurrency:64}")
+    private int ioMaxConcurrency;
+    
+    // CPU-bound work: single-text scoring
     @Bean(name = "sentimentTaskExecutor")
     public Executor sentimentTaskExecutor() {
+        if (isVirtualMode(mode)) {
+            return cpuBoundExecutor("Sentiment-", cpuQueueCapacity);
+        }
+        return platformExecutor("Sentiment-", 4, 8, 50);
+    }
+    
+    // I/O-bound work: reprocess jobs (DB reads and batched writes)
+    @Bean(name = "newsTaskExecutor")
+    public Executor newsTaskExecutor() {
+        if (isVirtualMode(mode)) {
+            return virtualThreadExecutor("News-", ioMaxConcurrency);
+        }
+        return platformExecutor("News-", 2, 4, 25);
+    }
+    
+    public static boolean isVirtualMode(String mode) {
+        return "virtual".equalsIgnoreCase(mode);
+    }
+    
+    // The original pools: once the queue is full, the submitting thread runs the task itself
+    public static ThreadPoolTaskExecutor platformExecutor(String threadNamePrefix, int corePoolSize,
+                                                          int maxPoolSize, int queueCapacity) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         
         // Core number of threads
-        executor.setCorePoolSize(4);
+        executor.setCorePoolSize(corePoolSize);
         
         // Maximum number of threads
-        executor.setMaxPoolSize(8);
+        executor.setMaxPoolSize(maxPoolSize);
         
         // Queue capacity for pending tasks
-        executor.setQueueCapacity(50);
+        executor.setQueueCapacity(queueCapacity);
         
         // Thread name prefix for debugging
-        executor.setThreadNamePrefix("Sentiment-");
+        executor.setThreadNamePrefix(threadNamePrefix);
         
         // What to do when pool is full
         executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
@@ -37,20 +79,86 @@ public class AsyncConfig implements AsyncConfigurer {
         return executor;
     }
     
-    @Bean(name = "newsTaskExecutor")
-    public Executor newsTaskExecutor() {
+    /**
+     * One platform thread per core and a bounded queue. Never runs work on the caller: once the
+     * queue is full, submitting throws {@link org.springframework.core.task.TaskRejectedException},
+     * which callers turn into a 503 so a burst is pushed back instead of queued without limit.
+     */
+    public static ThreadPoolTaskExecutor cpuBoundExecutor(String threadNamePrefix, int queueCapacity) {
+        int cores = Runtime.getRuntime().availableProcessors();
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(4);
-        executor.setQueueCapacity(25);
-        executor.setThreadNamePrefix("News-");
-        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setCorePoolSize(cores);
+        executor.setMaxPoolSize(cores);
+        executor.setQueueCapacity(Math.max(1, queueCapacity));
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+        executor.setThreadNamePrefix(threadNamePrefix);
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(60);
         executor.initialize();
         return executor;
     }
     
+    /**
+     * A virtual thread per task. The limit is a semaphore taken inside the task, so submitting
+     * never blocks or runs work on the caller; excess tasks just park their (cheap) threads.
+     */
+    public static VirtualThreadTaskExecutor virtualThreadExecutor(String threadNamePrefix, int maxConcurrency) {
+        VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor(threadNamePrefix, maxConcurrency);
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(task -> () -> {
+            executor.permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                executor.permits.release();
+            }
+        });
+        executor.setTaskTerminationTimeout(60_000);
+        return executor;
+    }
+    
+    // Virtual-thread executor that can tell how many tasks are running and how many wait
+    public static class VirtualThreadTaskExecutor extends SimpleAsyncTaskExecutor {
+        private final int maxConcurrency;
+        private final Semaphore permits;
+        
+        VirtualThreadTaskExecutor(String threadNamePrefix, int maxConcurrency) {
+            super(threadNamePrefix);
+            this.maxConcurrency = Math.max(1, maxConcurrency);
+            this.permits = new Semaphore(this.maxConcurrency);
+        }
+        
+        public int getActiveCount() {
+            return maxConcurrency - permits.availablePermits();
+        }
+        
+        public int getQueuedCount() {
+            return permits.getQueueLength();
+        }
+    }
+    
+    // Dedicated pool for parallel batch scoring, so large jobs stay off the common pool
+    @Bean(name = "sentimentForkJoinPool", destroyMethod = "shutdown")
+    public ForkJoinPool sentimentForkJoinPool(@Value("${sentiment.batch.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("SentimentBatch-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+    
+    // Runs the per-country refreshes (each holds a thread for its whole cycle) and the cleanup job
+    @Bean(name = "refreshTaskScheduler")
+    public ThreadPoolTaskScheduler refreshTaskScheduler(@Value("${refresh.poolSize:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("Refresh-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        scheduler.initialize();
+        return scheduler;
+    }
+    
     @Override
     public Executor getAsyncExecutor() {
         return sentimentTaskExecutor();
@@ -1,25 +1,62 @@
 package com.newsanalyzer.api.config;
 
-import java.util.List;
+import java.time.Duration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.newsanalyzer.api.services.SentimentScorer;
 @Configuration
 @EnableCaching
 public class CacheConfig {
     
+    // Approximate retained bytes per sentiment entry: boxed Long key (16), SentimentResult with
+    // its shared label constant (32) and Caffeine's node for a weighted, expiring entry (~64)
+    static final int SENTIMENT_ENTRY_BYTES = 16 + 32 + 64;
+    
+    @Value("${sentiment.cache.maxBytes:33554432}")
+    private long sentimentCacheMaxBytes;
+    
+    @Value("${sentiment.cache.ttlMinutes:360}")
+    private long sentimentCacheTtlMinutes;
+    
+    @Value("${news.cache.maxEntries:1000}")
+    private long newsCacheMaxEntries;
+    
+    @Value("${news.cache.ttlMinutes:15}")
+    private long newsCacheTtlMinutes;
+    
     @Bean
     public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        
-        // Define cache names and configurations
-        cacheManager.setCacheNames(List.of("sentimentCache", "newsCache"));
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
         cacheManager.setAllowNullValues(false); // Don't cache null results
         
+        // Bounded by weight, expired by TTL; Caffeine admits new entries with W-TinyLFU
+        cacheManager.registerCustomCache("sentimentCache", Caffeine.newBuilder()
+                .maximumWeight(sentimentCacheMaxBytes)
+                .weigher((key, value) -> SENTIMENT_ENTRY_BYTES)
+                .expireAfterWrite(Duration.ofMinutes(sentimentCacheTtlMinutes))
+                .recordStats()
+                .build());
+        
+        cacheManager.registerCustomCache("newsCache", Caffeine.newBuilder()
+                .maximumSize(newsCacheMaxEntries)
+                .expireAfterWrite(Duration.ofMinutes(newsCacheTtlMinutes))
+                .recordStats()
+                .build());
+        
         return cacheManager;
     }
-}
\ No newline at end of file
+    
+    // Keys sentiment entries on a 64-bit hash of the raw text, so the cache never holds article text
+    @Bean
+    public KeyGenerator sentimentKeyGenerator() {
+        return (target, method, params) -> SentimentScorer.cacheKey((String) params[0]);
+    }
+}
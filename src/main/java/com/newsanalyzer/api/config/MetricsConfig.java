@@ -0,0 +1,63 @@
+package com.newsanalyzer.api.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Gauges Spring Boot doesn't register by itself. Boot already covers the thread-pool executors
+ * (executor.active, executor.queued, ... tagged by bean name) and the Caffeine caches'
+ * cache.gets; this adds the virtual-thread executors, the batch scoring pool and a ready-made hit
+ * ratio per cache.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder executorMetrics(Map<String, Executor> executors,
+                                       @Qualifier("sentimentForkJoinPool") ForkJoinPool sentimentForkJoinPool) {
+        return registry -> {
+            new ExecutorServiceMetrics(sentimentForkJoinPool, "sentimentForkJoinPool", Tags.empty()).bindTo(registry);
+            executors.forEach((name, executor) -> {
+                if (executor instanceof AsyncConfig.VirtualThreadTaskExecutor virtual) {
+                    Gauge.builder("executor.active", virtual, AsyncConfig.VirtualThreadTaskExecutor::getActiveCount)
+                            .description("Tasks holding one of the executor's concurrency permits")
+                            .baseUnit("threads")
+                            .tag("name", name)
+                            .register(registry);
+                    Gauge.builder("executor.queued", virtual, AsyncConfig.VirtualThreadTaskExecutor::getQueuedCount)
+                            .description("Tasks waiting for a concurrency permit")
+                            .baseUnit("tasks")
+                            .tag("name", name)
+                            .register(registry);
+                }
+            });
+        };
+    }
+
+    @Bean
+    public MeterBinder cacheHitRatios(CacheManager cacheManager) {
+        return registry -> {
+            for (String name : cacheManager.getCacheNames()) {
+                Cache cache = cacheManager.getCache(name);
+                if (cache instanceof CaffeineCache caffeineCache) {
+                    Gauge.builder("cache.hit.ratio", caffeineCache.getNativeCache(), c -> c.stats().hitRate())
+                            .description("Share of lookups served from the cache since startup")
+                            .tag("cache", name)
+                            .register(registry);
+                }
+            }
+        };
+    }
+}
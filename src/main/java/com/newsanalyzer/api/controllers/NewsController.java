@@ -1,18 +1,36 @@
 package com.newsanalyzer.api.controllers;
 
+import com.newsanalyzer.api.models.ArticlePage;
+import com.newsanalyzer.api.models.ArticleView;
 import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.services.AdaptiveRefreshScheduler;
+import com.newsanalyzer.api.services.ArticleStreamService;
 import com.newsanalyzer.api.services.AsyncSentimentService;
+import com.newsanalyzer.api.services.CountryNewsSnapshot;
+import com.newsanalyzer.api.services.CacheStatsService;
 import com.newsanalyzer.api.services.ExternalNewsService;
 import com.newsanalyzer.api.services.NewsService;
 import com.newsanalyzer.api.services.ScheduledNewsService;
 import com.newsanalyzer.api.services.SentimentAnalysisService;
+import com.newsanalyzer.api.services.SentimentTrendSeries;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/news")
@@ -29,6 +47,24 @@ public class NewsController {
 
     @Autowired
     private AsyncSentimentService asyncSentimentService;
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    @Autowired
+    private ArticleStreamService articleStreamService;
+
+    @Autowired
+    private SentimentTrendSeries sentimentTrendSeries;
+
+    @Autowired
+    private AdaptiveRefreshScheduler adaptiveRefreshScheduler;
+
+    @Value("${api.page.defaultSize:50}")
+    private int defaultPageSize;
+
+    @Value("${api.page.maxSize:200}")
+    private int maxPageSize;
     
     // GET /api/news?country=us&sentiment=positive
     @GetMapping
@@ -39,6 +75,42 @@ public class NewsController {
         return newsService.getNewsByCountryAndSentiment(country, sentiment);
     }
     
+    // GET /api/news/page?country=us&sentiment=POSITIVE&limit=50&cursor=... - keyset-paged, newest first
+    @GetMapping("/page")
+    public ArticlePage getNewsPage(
+            @RequestParam(defaultValue = "us") String country,
+            @RequestParam(required = false) String sentiment,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        
+        return page(() -> newsService.getNewsPage(country, sentiment, cursor, pageSize(limit)));
+    }
+    
+    // GET /api/news/stream?country=us&format=ndjson|json - streamed straight from the database cursor
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamNews(
+            @RequestParam(defaultValue = "us") String country,
+            @RequestParam(required = false) String sentiment,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        
+        ArticleStreamService.Format streamFormat = streamFormat(format);
+        return streamed(streamFormat, out -> articleStreamService.writeNews(country, sentiment, streamFormat, out));
+    }
+    
+    // GET /api/news/trends?country=us&window=24h&step=5m - per-bucket sentiment counts and mean score
+    @GetMapping("/trends")
+    public List<SentimentTrendSeries.TrendPoint> getTrends(
+            @RequestParam(defaultValue = "us") String country,
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(defaultValue = "1h") String step) {
+        
+        try {
+            return sentimentTrendSeries.trend(country, DurationStyle.detectAndParse(window), DurationStyle.detectAndParse(step));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
     // GET /api/news/countries - get available countries
     @GetMapping("/countries")
     public List<String> getAvailableCountries() {
@@ -67,9 +139,48 @@ public class NewsController {
     @Autowired
     private ScheduledNewsService scheduledNewsService;
 
+    // Served from bytes serialized when the snapshot was built; 304 when the client's copy is current
     @GetMapping("/cached")
-    public List<NewsArticle> getCachedNews(@RequestParam(defaultValue = "us") String country) {
-        return scheduledNewsService.getCachedNews(country);
+    public ResponseEntity<byte[]> getCachedNews(
+            @RequestParam(defaultValue = "us") String country,
+            @RequestParam(required = false) String sentiment,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CountryNewsSnapshot.Encoded feed = scheduledNewsService.getSnapshot(country).encoded(sentiment);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? feed.gzipEtag() : feed.etag();
+
+        boolean notModified = etagMatches(ifNoneMatch, etag);
+        ResponseEntity.BodyBuilder response = (notModified ? ResponseEntity.status(HttpStatus.NOT_MODIFIED) : ResponseEntity.ok())
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (notModified) {
+            return response.build();
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.contentType(MediaType.APPLICATION_JSON).body(gzip ? feed.gzip() : feed.json());
+    }
+
+    @GetMapping("/cached/page")
+    public ArticlePage getCachedNewsPage(
+            @RequestParam(defaultValue = "us") String country,
+            @RequestParam(required = false) String sentiment,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return page(() -> scheduledNewsService.getCachedNewsPage(country, sentiment, cursor, pageSize(limit)));
+    }
+
+    @GetMapping("/cached/stream")
+    public ResponseEntity<StreamingResponseBody> streamCachedNews(
+            @RequestParam(defaultValue = "us") String country,
+            @RequestParam(required = false) String sentiment,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ArticleStreamService.Format streamFormat = streamFormat(format);
+        List<ArticleView> articles = scheduledNewsService.getCachedNews(country, sentiment);
+        return streamed(streamFormat, out -> articleStreamService.writeArticles(articles, streamFormat, out));
     }
 
     @GetMapping("/last-updated")
@@ -79,8 +190,16 @@ public class NewsController {
 
     @GetMapping("/force-refresh")
     public String forceRefresh() {
-        scheduledNewsService.fetchNewsForAllCountries();
-        return "News refresh triggered!";
+        List<String> refreshed = adaptiveRefreshScheduler.forceRefresh();
+        return refreshed.isEmpty()
+                ? "All countries are already refreshing"
+                : "News refresh triggered for " + refreshed + "!";
+    }
+
+    // Per-country refresh plan: next run, current interval and observed arrival rate
+    @GetMapping("/schedule")
+    public List<AdaptiveRefreshScheduler.CountrySchedule> getRefreshSchedule() {
+        return adaptiveRefreshScheduler.getSchedule();
     }
 
     @GetMapping("/test-sentiment")
@@ -98,6 +217,24 @@ public class NewsController {
         return newsService.getHighConfidenceNews(country, sentiment);
     }
 
+    @GetMapping("/high-confidence/page")
+    public ArticlePage getHighConfidenceNewsPage(
+            @RequestParam(defaultValue = "us") String country,
+            @RequestParam String sentiment,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return page(() -> newsService.getHighConfidenceNewsPage(country, sentiment, cursor, pageSize(limit)));
+    }
+
+    @GetMapping("/high-confidence/stream")
+    public ResponseEntity<StreamingResponseBody> streamHighConfidenceNews(
+            @RequestParam(defaultValue = "us") String country,
+            @RequestParam String sentiment,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ArticleStreamService.Format streamFormat = streamFormat(format);
+        return streamed(streamFormat, out -> articleStreamService.writeHighConfidenceNews(country, sentiment, streamFormat, out));
+    }
+
     // Get detailed sentiment statistics
     @GetMapping("/detailed-stats")
     public Map<String, Object> getDetailedStats(@RequestParam(defaultValue = "us") String country) {
@@ -130,10 +267,83 @@ public class NewsController {
         return asyncSentimentService.getProcessingStatus();
     }
 
+    // Get hit/miss/eviction counters for the caches
+    @GetMapping("/cache-stats")
+    public Map<String, Map<String, Object>> getCacheStats() {
+        return cacheStatsService.getCacheStats();
+    }
+
     // Analyze text asynchronously
     @GetMapping("/analyze-async")
     public CompletableFuture<SentimentAnalysisService.SentimentResult> analyzeAsync(@RequestParam String text) {
-        return asyncSentimentService.analyzeSingleAsync(text);
+        try {
+            return asyncSentimentService.analyzeSingleAsync(text);
+        } catch (TaskRejectedException e) {
+            // Every scoring thread is busy and the queue is full: push back rather than pile up
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Sentiment executor is saturated");
+        }
+    }
+
+    private static ArticleStreamService.Format streamFormat(String format) {
+        try {
+            return ArticleStreamService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown format: " + format);
+        }
+    }
+
+    private static ResponseEntity<StreamingResponseBody> streamed(ArticleStreamService.Format format, StreamingResponseBody body) {
+        return ResponseEntity.ok().contentType(format.getMediaType()).body(body);
+    }
+
+    // True when gzip (or *) is listed in Accept-Encoding without q=0
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.matches("q=0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // If-None-Match uses weak comparison: W/"x" matches "x"
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Requested page size, clamped to [1, api.page.maxSize]
+    private int pageSize(Integer limit) {
+        int size = limit != null ? limit : defaultPageSize;
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+    
+    // A cursor that doesn't parse is the client's mistake
+    private static ArticlePage page(Supplier<ArticlePage> query) {
+        try {
+            return query.get();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
     
-}
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.newsanalyzer.api.models;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Position in a newest-first article feed: the (publishedAt, id) of the last article returned.
+ * Clients only ever see it as an opaque token.
+ */
+public record ArticleCursor(LocalDateTime publishedAt, long id) implements Comparable<ArticleCursor> {
+
+    public static ArticleCursor of(NewsArticle article) {
+        return new ArticleCursor(article.getPublishedAt(), article.getId());
+    }
+
+    public static ArticleCursor of(ArticleView article) {
+        return new ArticleCursor(article.publishedAt(), article.id());
+    }
+
+    // Null or blank means "from the start"; anything else that doesn't decode is rejected
+    public static ArticleCursor parse(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('|');
+            return new ArticleCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = publishedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Keyset position just past this cursor, for "ORDER BY publishedAt DESC, id DESC" queries
+    public static KeysetScrollPosition toScrollPosition(ArticleCursor cursor) {
+        if (cursor == null) {
+            return ScrollPosition.keyset();
+        }
+        return ScrollPosition.forward(Map.of("publishedAt", cursor.publishedAt, "id", cursor.id));
+    }
+
+    // Feed order: newest first, ties broken by the higher id
+    @Override
+    public int compareTo(ArticleCursor other) {
+        int byTime = other.publishedAt.compareTo(publishedAt);
+        return byTime != 0 ? byTime : Long.compare(other.id, id);
+    }
+}
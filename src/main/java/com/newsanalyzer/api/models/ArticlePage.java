@@ -0,0 +1,20 @@
+package com.newsanalyzer.api.models;
+
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+
+// One page of a newest-first feed; pass nextCursor back to get the following page
+public record ArticlePage(List<ArticleView> articles, String nextCursor, boolean hasMore) {
+
+    public static ArticlePage of(List<ArticleView> articles, boolean hasMore) {
+        String nextCursor = hasMore && !articles.isEmpty()
+                ? ArticleCursor.of(articles.get(articles.size() - 1)).encode()
+                : null;
+        return new ArticlePage(articles, nextCursor, hasMore);
+    }
+
+    public static ArticlePage of(Window<NewsArticle> window) {
+        return of(window.getContent().stream().map(ArticleView::of).toList(), window.hasNext());
+    }
+}
@@ -0,0 +1,16 @@
+package com.newsanalyzer.api.models;
+
+import java.time.LocalDateTime;
+
+// Read-only copy of a NewsArticle for API responses; serializes to the same JSON as the entity
+public record ArticleView(Long id, String title, String description, String url, String country,
+                          String sentiment, Double sentimentScore, Double sentimentConfidence,
+                          LocalDateTime publishedAt, String source, LocalDateTime createdAt) {
+
+    public static ArticleView of(NewsArticle article) {
+        return new ArticleView(article.getId(), article.getTitle(), article.getDescription(), article.getUrl(),
+                article.getCountry(), article.getSentiment(), article.getSentimentScore(),
+                article.getSentimentConfidence(), article.getPublishedAt(), article.getSource(),
+                article.getCreatedAt());
+    }
+}
@@ -10,11 +10,23 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "news_articles")
+@Table(name = "news_articles", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_news_articles_url_country", columnNames = {"url", "country"})
+}, indexes = {
+    // findByCountry / findByCountryAndPublishedAtAfter
+    @Index(name = "idx_news_articles_country_published_at", columnList = "country, published_at"),
+    // findByCountryAndSentiment / countSentimentsByCountry
+    @Index(name = "idx_news_articles_country_sentiment", columnList = "country, sentiment"),
+    // deleteOldArticles
+    @Index(name = "idx_news_articles_published_at", columnList = "published_at")
+})
 public class NewsArticle {
     
+    // Pooled sequence: ids are handed out 50 at a time, so inserts can be JDBC-batched
+    // (IDENTITY needs a round trip per row to learn the generated key)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "news_articles_seq")
+    @SequenceGenerator(name = "news_articles_seq", sequenceName = "news_articles_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "title", length = 500)
@@ -0,0 +1,15 @@
+package com.newsanalyzer.api.models;
+
+// Sentiment labels; the name is what gets stored in news_articles.sentiment
+public enum SentimentLabel {
+    POSITIVE,
+    NEGATIVE,
+    NEUTRAL,
+    PROCESSING; // Saved, sentiment not scored yet
+
+    private static final SentimentLabel[] VALUES = values();
+
+    public static SentimentLabel fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
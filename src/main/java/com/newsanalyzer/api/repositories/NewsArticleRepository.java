@@ -1,18 +1,27 @@
 package com.newsanalyzer.api.repositories;
 
 import com.newsanalyzer.api.models.NewsArticle;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface NewsArticleRepository extends JpaRepository<NewsArticle, Long> {
+public interface NewsArticleRepository extends JpaRepository<NewsArticle, Long>, NewsArticleRepositoryCustom {
     
     // Find articles by country
     List<NewsArticle> findByCountry(String country);
@@ -20,6 +29,28 @@ public interface NewsArticleRepository extends JpaRepository<NewsArticle, Long>
     // Find articles by country and sentiment
     List<NewsArticle> findByCountryAndSentiment(String country, String sentiment);
     
+    // Keyset-paged variants, newest first (id breaks ties so the order is total)
+    Window<NewsArticle> findByCountryOrderByPublishedAtDescIdDesc(
+            String country, ScrollPosition position, Limit limit);
+    
+    Window<NewsArticle> findByCountryAndSentimentOrderByPublishedAtDescIdDesc(
+            String country, String sentiment, ScrollPosition position, Limit limit);
+    
+    Window<NewsArticle> findByCountryAndSentimentAndSentimentConfidenceGreaterThanOrderByPublishedAtDescIdDesc(
+            String country, String sentiment, Double minConfidence, ScrollPosition position, Limit limit);
+    
+    // Streamed variants, newest first: rows are pulled from the cursor as the caller consumes them.
+    // Must be consumed inside a (read-only) transaction and closed afterwards.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "256"))
+    Stream<NewsArticle> streamByCountryOrderByPublishedAtDescIdDesc(String country);
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "256"))
+    Stream<NewsArticle> streamByCountryAndSentimentOrderByPublishedAtDescIdDesc(String country, String sentiment);
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "256"))
+    Stream<NewsArticle> streamByCountryAndSentimentAndSentimentConfidenceGreaterThanOrderByPublishedAtDescIdDesc(
+            String country, String sentiment, Double minConfidence);
+    
     // Find recent articles (last 24 hours)
     List<NewsArticle> findByPublishedAtAfter(LocalDateTime dateTime);
     
@@ -30,12 +61,28 @@ public interface NewsArticleRepository extends JpaRepository<NewsArticle, Long>
     @Query("SELECT a.sentiment, COUNT(a) FROM NewsArticle a WHERE a.country = :country GROUP BY a.sentiment")
     List<Object[]> countSentimentsByCountry(@Param("country") String country);
     
-    // Delete old articles (older than 24 hours) - for cleanup
+    // (country, sentiment, publishedAt, sentimentScore, sentimentConfidence) rows for the stats store
+    @Query("SELECT a.country, a.sentiment, a.publishedAt, a.sentimentScore, a.sentimentConfidence FROM NewsArticle a")
+    List<Object[]> findAllStatsRows();
+    
+    @Query("SELECT a.country, a.sentiment, a.publishedAt, a.sentimentScore, a.sentimentConfidence FROM NewsArticle a "
+            + "WHERE a.publishedAt >= :from AND a.publishedAt < :to")
+    List<Object[]> findStatsRowsPublishedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // Delete old articles (older than 24 hours) - for cleanup; returns how many went
     @Modifying
     @Transactional
     @Query("DELETE FROM NewsArticle a WHERE a.publishedAt < :cutoffTime")
-    void deleteOldArticles(@Param("cutoffTime") LocalDateTime cutoffTime);
+    int deleteOldArticles(@Param("cutoffTime") LocalDateTime cutoffTime);
     
     // Check if article already exists (to avoid duplicates)
     boolean existsByUrlAndCountry(String url, String country);
+    
+    // Set-based duplicate check: which of these urls we already have for a country
+    @Query("SELECT a.url FROM NewsArticle a WHERE a.country = :country AND a.url IN :urls")
+    List<String> findExistingUrls(@Param("country") String country, @Param("urls") Collection<String> urls);
+    
+    // All (url, country) keys, for warming the duplicate filter
+    @Query("SELECT a.url, a.country FROM NewsArticle a")
+    List<Object[]> findAllUrlKeys();
 }
\ No newline at end of file
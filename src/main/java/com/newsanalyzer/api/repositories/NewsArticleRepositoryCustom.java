@@ -0,0 +1,12 @@
+package com.newsanalyzer.api.repositories;
+
+import com.newsanalyzer.api.models.NewsArticle;
+
+import java.util.List;
+
+public interface NewsArticleRepositoryCustom {
+
+    // Writes only sentiment, sentiment_score and sentiment_confidence, by id, in JDBC batches.
+    // Articles without an id are skipped. Returns the number of rows updated.
+    int bulkUpdateSentiment(List<NewsArticle> articles);
+}
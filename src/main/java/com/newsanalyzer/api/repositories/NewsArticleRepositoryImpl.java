@@ -0,0 +1,50 @@
+package com.newsanalyzer.api.repositories;
+
+import com.newsanalyzer.api.models.NewsArticle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.List;
+
+// Picked up by Spring Data as the implementation of NewsArticleRepositoryCustom
+public class NewsArticleRepositoryImpl implements NewsArticleRepositoryCustom {
+
+    private static final String UPDATE_SENTIMENT_SQL =
+            "UPDATE news_articles SET sentiment = ?, sentiment_score = ?, sentiment_confidence = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public int bulkUpdateSentiment(List<NewsArticle> articles) {
+        List<NewsArticle> persisted = articles.stream()
+                .filter(article -> article.getId() != null)
+                .toList();
+        if (persisted.isEmpty()) {
+            return 0;
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SENTIMENT_SQL, persisted, Math.max(1, batchSize), (ps, article) -> {
+            ps.setString(1, article.getSentiment());
+            ps.setObject(2, article.getSentimentScore(), Types.DOUBLE);
+            ps.setObject(3, article.getSentimentConfidence(), Types.DOUBLE);
+            ps.setLong(4, article.getId());
+        });
+
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Some drivers only report SUCCESS_NO_INFO (-2) for batched statements
+                updated += count >= 0 ? count : 1;
+            }
+        }
+        return updated;
+    }
+}
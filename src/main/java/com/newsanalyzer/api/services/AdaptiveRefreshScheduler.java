@@ -0,0 +1,215 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.services.NewsApiRateLimiter.Priority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Refreshes each country on its own timer, sized to how fast new articles show up there.
+ * <p>
+ * After every run the country's arrival rate (new articles per minute, smoothed over runs) sets
+ * the next interval: roughly the time it takes for {@code refresh.targetNewArticles} to pile up,
+ * clamped to [{@code refresh.minMinutes}, {@code refresh.maxMinutes}] and never more than double
+ * the previous interval. A country's next run is only scheduled when its current one finishes,
+ * so runs for one country never overlap.
+ */
+@Service
+public class AdaptiveRefreshScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveRefreshScheduler.class);
+
+    // Weight of the latest run in the smoothed arrival rate
+    private static final double SMOOTHING = 0.3;
+
+    @Value("${refresh.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${refresh.minMinutes:2}")
+    private long minMinutes = 2;
+
+    @Value("${refresh.maxMinutes:60}")
+    private long maxMinutes = 60;
+
+    @Value("${refresh.initialMinutes:15}")
+    private long initialMinutes = 15;
+
+    @Value("${refresh.targetNewArticles:10}")
+    private double targetNewArticles = 10;
+
+    // First runs start this long after startup, one second apart
+    @Value("${refresh.initialDelaySeconds:5}")
+    private long initialDelaySeconds = 5;
+
+    @Autowired
+    private ScheduledNewsService scheduledNewsService;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private final Map<String, CountryState> states = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("Adaptive refresh disabled");
+            return;
+        }
+        List<String> countries = scheduledNewsService.getSupportedCountries();
+        Instant first = Instant.now().plusSeconds(initialDelaySeconds);
+        for (int i = 0; i < countries.size(); i++) {
+            CountryState state = states.computeIfAbsent(countries.get(i),
+                    country -> new CountryState(country, Duration.ofMinutes(initialMinutes)));
+            schedule(state, first.plusSeconds(i));
+        }
+        logger.info("Adaptive refresh scheduled for {} countries", countries.size());
+    }
+
+    /**
+     * Refreshes every country that isn't already mid-run, right away and ahead of background
+     * requests, then reschedules them from their new rates. Returns the countries it refreshed.
+     */
+    public List<String> forceRefresh() {
+        List<CountryState> claimed = new ArrayList<>();
+        for (String country : scheduledNewsService.getSupportedCountries()) {
+            CountryState state = states.computeIfAbsent(country,
+                    c -> new CountryState(c, Duration.ofMinutes(initialMinutes)));
+            if (state.running.compareAndSet(false, true)) {
+                state.cancelPending();
+                claimed.add(state);
+            }
+        }
+        if (!claimed.isEmpty()) {
+            run(claimed, Priority.INTERACTIVE);
+        }
+        return claimed.stream().map(state -> state.country).toList();
+    }
+
+    // Current plan per country, by next run
+    public List<CountrySchedule> getSchedule() {
+        return states.values().stream()
+                .map(CountryState::view)
+                .sorted(Comparator.comparing(CountrySchedule::nextRun, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    private void schedule(CountryState state, Instant at) {
+        long generation;
+        synchronized (state) {
+            generation = ++state.generation;
+            state.nextRun = at;
+            state.pending = taskScheduler.schedule(() -> runScheduled(state, generation), at);
+        }
+    }
+
+    private void runScheduled(CountryState state, long generation) {
+        if (!state.running.compareAndSet(false, true)) {
+            return; // A forced run has it and will reschedule
+        }
+        if (state.generation != generation) {
+            state.running.set(false); // Superseded by a later schedule
+            return;
+        }
+        run(List.of(state), Priority.BACKGROUND);
+    }
+
+    // The states must already be claimed (running = true)
+    private void run(List<CountryState> claimed, Priority priority) {
+        Instant started = Instant.now();
+        Map<String, Integer> saved = Map.of();
+        try {
+            IngestionPipeline.CycleReport report = scheduledNewsService.refreshCountries(
+                    claimed.stream().map(state -> state.country).toList(), priority);
+            if (report != null) {
+                saved = report.savedByCountry();
+            }
+        } catch (Exception e) {
+            logger.error("Refresh failed for {}", claimed.stream().map(state -> state.country).toList(), e);
+        } finally {
+            for (CountryState state : claimed) {
+                Duration next = state.adapt(saved.getOrDefault(state.country, 0), started);
+                state.running.set(false);
+                schedule(state, Instant.now().plus(next));
+                logger.debug("Next refresh for {} in {}", state.country, next);
+            }
+        }
+    }
+
+    // Per-country bookkeeping; nextRun/pending/generation are guarded by the state itself
+    final class CountryState {
+        private final String country;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile Duration interval;
+        private volatile double newPerMinute = -1; // No run yet
+        private volatile Instant lastRun;
+        private volatile int lastNewArticles;
+        private volatile Instant nextRun;
+        private volatile long generation;
+        private ScheduledFuture<?> pending;
+
+        CountryState(String country, Duration interval) {
+            this.country = country;
+            this.interval = interval;
+        }
+
+        /**
+         * Folds a run that found {@code newArticles} into the arrival rate and returns the next
+         * interval. The first run's window is taken to be the starting interval.
+         */
+        synchronized Duration adapt(int newArticles, Instant started) {
+            double minutes = lastRun != null
+                    ? Math.max(Duration.between(lastRun, started).toMillis() / 60_000.0, 1.0 / 60)
+                    : interval.toMillis() / 60_000.0;
+            double observed = newArticles / minutes;
+            newPerMinute = newPerMinute < 0 ? observed : SMOOTHING * observed + (1 - SMOOTHING) * newPerMinute;
+            lastRun = started;
+            lastNewArticles = newArticles;
+
+            double target = newPerMinute > 0 ? targetNewArticles / newPerMinute : Double.MAX_VALUE;
+            double capped = Math.min(target, interval.toMillis() / 60_000.0 * 2);
+            double bounded = Math.max(minMinutes, Math.min(maxMinutes, capped));
+            interval = Duration.ofMillis(Math.round(bounded * 60_000));
+            return interval;
+        }
+
+        synchronized void cancelPending() {
+            generation++;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            nextRun = null;
+        }
+
+        CountrySchedule view() {
+            ZoneId zone = ZoneId.systemDefault();
+            return new CountrySchedule(country,
+                    nextRun != null ? LocalDateTime.ofInstant(nextRun, zone) : null,
+                    interval.toSeconds(),
+                    newPerMinute < 0 ? null : newPerMinute * 60,
+                    lastRun != null ? LocalDateTime.ofInstant(lastRun, zone) : null,
+                    lastNewArticles,
+                    running.get());
+        }
+    }
+
+    public record CountrySchedule(String country, LocalDateTime nextRun, long intervalSeconds,
+                                  Double newArticlesPerHour, LocalDateTime lastRun, int lastNewArticles,
+                                  boolean running) {}
+}
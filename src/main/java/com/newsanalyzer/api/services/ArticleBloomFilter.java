@@ -0,0 +1,95 @@
+package com.newsanalyzer.api.services;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over (url, country) keys.
+ * <p>
+ * {@link #mightContain} never returns false for a key that was {@link #put}, and returns true for
+ * an unseen key with roughly the configured false-positive rate. Adds and lookups are lock-free
+ * and safe to call from several threads. Deletes aren't supported: rebuild the filter instead.
+ */
+public final class ArticleBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public ArticleBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        double p = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+
+        // Optimal size m = -n ln p / (ln 2)^2 and hash count k = m/n ln 2
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        // Capped at 2^31 bits, the range of the int hash combination below
+        int words = (int) Math.min(1L << 25, Math.max(1, (m + 63) >>> 6));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void put(String url, String country) {
+        long hash = hash(url, country);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1, h2, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = bits.get(word)) & mask) == 0) {
+                if (bits.compareAndSet(word, current, current | mask)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    public boolean mightContain(String url, String country) {
+        long hash = hash(url, country);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1, h2, i);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    // Kirsch-Mitzenmacher double hashing: g_i = h1 + i * h2
+    private long index(int h1, int h2, int i) {
+        int combined = h1 + i * h2;
+        return (combined & 0x7fffffffL) % bitCount;
+    }
+
+    // FNV-1a over url, a separator and country, then murmur3 fmix64 to spread the bits
+    private static long hash(String url, String country) {
+        long h = 0xcbf29ce484222325L;
+        h = mix(h, url);
+        h = (h ^ 0xffff) * 0x100000001b3L;
+        h = mix(h, country);
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static long mix(long h, String value) {
+        if (value == null) {
+            return (h ^ 0xfffe) * 0x100000001b3L;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,126 @@
+package com.newsanalyzer.api.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.newsanalyzer.api.models.ArticleView;
+import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.repositories.NewsArticleRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes article feeds straight to a response body as rows come off the database cursor,
+ * either as NDJSON (one article per line) or as a single JSON array. Only the rows between
+ * two flushes are ever held in memory.
+ */
+@Service
+public class ArticleStreamService {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // Flush after the first article (fast first byte), then every this many
+    private static final int FLUSH_EVERY = 100;
+
+    public enum Format {
+        NDJSON(APPLICATION_NDJSON),
+        JSON(MediaType.APPLICATION_JSON);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+    }
+
+    @Autowired
+    private NewsArticleRepository newsRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void writeNews(String country, String sentiment, Format format, OutputStream out) {
+        writeFromDatabase(() -> (sentiment != null && !sentiment.isEmpty())
+                ? newsRepository.streamByCountryAndSentimentOrderByPublishedAtDescIdDesc(country, sentiment)
+                : newsRepository.streamByCountryOrderByPublishedAtDescIdDesc(country), format, out);
+    }
+
+    public void writeHighConfidenceNews(String country, String sentiment, Format format, OutputStream out) {
+        writeFromDatabase(() -> newsRepository
+                .streamByCountryAndSentimentAndSentimentConfidenceGreaterThanOrderByPublishedAtDescIdDesc(country, sentiment, 0.7),
+                format, out);
+    }
+
+    // Already in memory (the scheduler's cache): just serialize without building one big buffer
+    public void writeArticles(List<ArticleView> articles, Format format, OutputStream out) {
+        write(articles.stream(), format, out, article -> {});
+    }
+
+    private void writeFromDatabase(Supplier<Stream<NewsArticle>> query, Format format, OutputStream out) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<NewsArticle> articles = query.get()) {
+                // Detach each article once written so the persistence context doesn't grow with the feed
+                write(articles, format, out, entityManager::detach);
+            }
+        });
+    }
+
+    private <T> void write(Stream<T> articles, Format format, OutputStream out, Consumer<T> afterWrite) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            if (format == Format.JSON) {
+                generator.writeStartArray();
+            }
+
+            int[] written = {0};
+            articles.forEachOrdered(article -> {
+                try {
+                    writer.writeValue(generator, article);
+                    if (format == Format.NDJSON) {
+                        generator.writeRaw('\n');
+                    }
+                    afterWrite.accept(article);
+                    if (++written[0] % FLUSH_EVERY == 1) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            if (format == Format.JSON) {
+                generator.writeEndArray();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
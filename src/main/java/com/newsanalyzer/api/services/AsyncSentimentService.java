@@ -1,8 +1,11 @@
 package com.newsanalyzer.api.services;
 
 import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.models.SentimentLabel;
 import com.newsanalyzer.api.repositories.NewsArticleRepository;
 import com.newsanalyzer.api.services.SentimentAnalysisService.SentimentResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -15,6 +18,8 @@ import java.util.stream.Collectors;
 
 @Service
 public class AsyncSentimentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncSentimentService.class);
     
     @Autowired
     private SentimentAnalysisService sentimentAnalysisService;
@@ -22,13 +27,17 @@ public class AsyncSentimentService {
     @Autowired
     private NewsArticleRepository newsRepository;
     
+    @Autowired
+    private SentimentStatsStore sentimentStatsStore;
+    
     // Track processing status
     private final Map<String, Integer> processingStatus = new ConcurrentHashMap<>();
     
-    @Async("sentimentTaskExecutor")
+    // Mostly DB writes (scoring itself runs on the batch pool), so it goes on the I/O executor
+    @Async("newsTaskExecutor")
     public CompletableFuture<Void> processArticlesSentimentAsync(List<NewsArticle> articles, String country) {
         try {
-            System.out.println("🧠 Starting async sentiment processing for " + articles.size() + " articles (" + country.toUpperCase() + ")");
+            logger.info("Starting async sentiment processing for {} articles ({})", articles.size(), country);
             
             long startTime = System.currentTimeMillis();
             processingStatus.put(country + "_processing", articles.size());
@@ -51,11 +60,11 @@ public class AsyncSentimentService {
             processingStatus.put(country + "_completed", articles.size());
             processingStatus.put(country + "_time", (int) processingTime);
             
-            System.out.println("✅ Async sentiment processing completed for " + country.toUpperCase() + 
-                             " (" + articles.size() + " articles, " + processingTime + "ms)");
+            logger.info("Async sentiment processing completed for {} ({} articles, {}ms)",
+                    country, articles.size(), processingTime);
             
         } catch (Exception e) {
-            System.err.println("❌ Error in async sentiment processing for " + country + ": " + e.getMessage());
+            logger.error("Error in async sentiment processing for {}", country, e);
             processingStatus.put(country + "_error", 1);
         }
         
@@ -66,33 +75,36 @@ public class AsyncSentimentService {
         try {
             // Extract text for batch analysis
             List<String> texts = chunk.stream()
-                    .map(this::buildAnalysisText)
+                    .map(SentimentAnalysisService::buildAnalysisText)
                     .collect(Collectors.toList());
             
-            // Batch analyze sentiment
-            Map<String, SentimentResult> results = sentimentAnalysisService.analyzeBatch(texts);
+            // Batch analyze sentiment (results line up with the texts)
+            SentimentBatch results = sentimentAnalysisService.analyzeBatchColumnar(texts);
             
-            // Apply results to articles
+            // Apply results to articles, keeping the old values for the stats store
+            String[] previousSentiments = new String[chunk.size()];
+            Double[] previousScores = new Double[chunk.size()];
+            Double[] previousConfidences = new Double[chunk.size()];
             for (int i = 0; i < chunk.size(); i++) {
                 NewsArticle article = chunk.get(i);
-                String text = texts.get(i);
-                
-                if (results.containsKey(text)) {
-                    SentimentResult result = results.get(text);
-                    article.setSentimentData(result.getSentiment(), result.getScore(), result.getConfidence());
-                } else {
-                    // Fallback
-                    article.setSentimentData("NEUTRAL", 0.0, 0.5);
-                }
+                previousSentiments[i] = article.getSentiment();
+                previousScores[i] = article.getSentimentScore();
+                previousConfidences[i] = article.getSentimentConfidence();
+                article.setSentimentData(results.label(i).name(), results.score(i), results.confidence(i));
             }
             
-            // Batch update database
-            newsRepository.saveAll(chunk);
+            // Write just the sentiment columns back, batched by id
+            newsRepository.bulkUpdateSentiment(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                if (chunk.get(i).getId() != null) {
+                    sentimentStatsStore.replace(chunk.get(i), previousSentiments[i], previousScores[i], previousConfidences[i]);
+                }
+            }
             
-            System.out.println("   📝 Processed chunk " + chunkNumber + "/" + totalChunks + " for " + country.toUpperCase());
+            logger.debug("Processed chunk {}/{} for {}", chunkNumber, totalChunks, country);
             
         } catch (Exception e) {
-            System.err.println("Error processing chunk " + chunkNumber + " for " + country + ": " + e.getMessage());
+            logger.error("Error processing chunk {} for {}", chunkNumber, country, e);
         }
     }
     
@@ -102,15 +114,15 @@ public class AsyncSentimentService {
             SentimentResult result = sentimentAnalysisService.analyzeSentiment(text);
             return CompletableFuture.completedFuture(result);
         } catch (Exception e) {
-            System.err.println("Error in async single analysis: " + e.getMessage());
-            return CompletableFuture.completedFuture(new SentimentResult("NEUTRAL", 0.0, 0.5));
+            logger.warn("Error in async single analysis: {}", e.toString());
+            return CompletableFuture.completedFuture(new SentimentResult(SentimentLabel.NEUTRAL, 0.0, 0.5));
         }
     }
     
     @Async("newsTaskExecutor")
     public CompletableFuture<Void> reprocessCountrySentiment(String country) {
         try {
-            System.out.println("🔄 Reprocessing sentiment for " + country.toUpperCase());
+            logger.info("Reprocessing sentiment for {}", country);
             
             // Get all articles for country that need reprocessing
             List<NewsArticle> articles = newsRepository.findByCountry(country).stream()
@@ -120,31 +132,16 @@ public class AsyncSentimentService {
             if (!articles.isEmpty()) {
                 return processArticlesSentimentAsync(articles, country);
             } else {
-                System.out.println("✅ No articles need reprocessing for " + country.toUpperCase());
+                logger.info("No articles need reprocessing for {}", country);
                 return CompletableFuture.completedFuture(null);
             }
             
         } catch (Exception e) {
-            System.err.println("Error reprocessing sentiment for " + country + ": " + e.getMessage());
+            logger.error("Error reprocessing sentiment for {}", country, e);
             return CompletableFuture.completedFuture(null);
         }
     }
     
-    private String buildAnalysisText(NewsArticle article) {
-        StringBuilder text = new StringBuilder();
-        
-        if (article.getTitle() != null && !article.getTitle().trim().isEmpty()) {
-            text.append(article.getTitle());
-        }
-        
-        if (article.getDescription() != null && !article.getDescription().trim().isEmpty()) {
-            if (text.length() > 0) text.append(" ");
-            text.append(article.getDescription());
-        }
-        
-        return text.toString().trim();
-    }
-    
     // Public methods for monitoring
     public Map<String, Integer> getProcessingStatus() {
         return new ConcurrentHashMap<>(processingStatus);
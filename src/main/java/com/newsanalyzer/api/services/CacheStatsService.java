@@ -0,0 +1,51 @@
+package com.newsanalyzer.api.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class CacheStatsService {
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    // Hit, miss and eviction counters for every Caffeine-backed cache
+    public Map<String, Map<String, Object>> getCacheStats() {
+        Map<String, Map<String, Object>> allStats = new LinkedHashMap<>();
+        
+        for (String name : cacheManager.getCacheNames()) {
+            if (!(cacheManager.getCache(name) instanceof CaffeineCache caffeineCache)) {
+                continue;
+            }
+            Cache<Object, Object> cache = caffeineCache.getNativeCache();
+            CacheStats stats = cache.stats();
+            
+            Map<String, Object> cacheStats = new LinkedHashMap<>();
+            cacheStats.put("hits", stats.hitCount());
+            cacheStats.put("misses", stats.missCount());
+            cacheStats.put("hitRate", stats.hitRate());
+            cacheStats.put("evictions", stats.evictionCount());
+            cacheStats.put("evictionWeight", stats.evictionWeight());
+            cacheStats.put("size", cache.estimatedSize());
+            cache.policy().eviction().ifPresent(eviction -> {
+                if (eviction.isWeighted()) {
+                    cacheStats.put("weightedSizeBytes", eviction.weightedSize().orElse(0));
+                    cacheStats.put("maxWeightBytes", eviction.getMaximum());
+                } else {
+                    cacheStats.put("maxSize", eviction.getMaximum());
+                }
+            });
+            
+            allStats.put(name, cacheStats);
+        }
+        
+        return allStats;
+    }
+}
@@ -0,0 +1,228 @@
+package com.newsanalyzer.api.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsanalyzer.api.models.ArticleCursor;
+import com.newsanalyzer.api.models.ArticleView;
+import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.models.SentimentLabel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Immutable view of one country's recent news, built once per refresh and never modified.
+ * <p>
+ * Articles are held newest first, and a second array holds the same articles grouped by
+ * sentiment (newest first within each group), so a sentiment filter is just a slice of it.
+ * The JSON for the whole feed and for each sentiment is serialized (and gzipped) once at build
+ * time, so serving the feed is a plain byte copy.
+ */
+public final class CountryNewsSnapshot {
+
+    private static final SentimentLabel[] LABELS = SentimentLabel.values();
+    // Partition for sentiments that aren't a SentimentLabel (or are missing)
+    private static final int OTHER = LABELS.length;
+
+    // "[]", for empty feeds and unknown sentiments
+    private static final Encoded EMPTY = Encoded.of("[]".getBytes(StandardCharsets.UTF_8));
+    private static final String ALL = "";
+
+    private final String country;
+    private final long version;
+    private final LocalDateTime builtAt;
+    private final ArticleView[] articles;
+    private final ArticleView[] bySentiment;
+    // Partition p is bySentiment[partitionStarts[p], partitionStarts[p + 1])
+    private final int[] partitionStarts;
+    // Serialized feed per filter: ALL, then each label's name
+    private final Map<String, Encoded> encoded = new HashMap<>();
+
+    private CountryNewsSnapshot(String country, long version, LocalDateTime builtAt,
+                                ArticleView[] articles, ArticleView[] bySentiment, int[] partitionStarts) {
+        this.country = country;
+        this.version = version;
+        this.builtAt = builtAt;
+        this.articles = articles;
+        this.bySentiment = bySentiment;
+        this.partitionStarts = partitionStarts;
+    }
+
+    public static CountryNewsSnapshot empty(String country) {
+        return new CountryNewsSnapshot(country, 0, null, new ArticleView[0], new ArticleView[0], new int[OTHER + 2]);
+    }
+
+    public static CountryNewsSnapshot build(String country, long version, List<NewsArticle> entities,
+                                            ObjectMapper objectMapper) {
+        ArticleView[] articles = entities.stream()
+                .map(ArticleView::of)
+                .sorted(Comparator.comparing(ArticleCursor::of))
+                .toArray(ArticleView[]::new);
+
+        // Counting sort by partition; stable, so each partition stays newest first
+        int[] partitionStarts = new int[OTHER + 2];
+        for (ArticleView article : articles) {
+            partitionStarts[partitionOf(article.sentiment()) + 1]++;
+        }
+        for (int p = 1; p < partitionStarts.length; p++) {
+            partitionStarts[p] += partitionStarts[p - 1];
+        }
+        int[] next = Arrays.copyOf(partitionStarts, partitionStarts.length);
+        ArticleView[] bySentiment = new ArticleView[articles.length];
+        for (ArticleView article : articles) {
+            bySentiment[next[partitionOf(article.sentiment())]++] = article;
+        }
+
+        CountryNewsSnapshot snapshot = new CountryNewsSnapshot(
+                country, version, LocalDateTime.now(), articles, bySentiment, partitionStarts);
+        snapshot.encode(ALL, snapshot.articles(), objectMapper);
+        for (SentimentLabel label : LABELS) {
+            snapshot.encode(label.name(), snapshot.articles(label.name()), objectMapper);
+        }
+        return snapshot;
+    }
+
+    private void encode(String key, List<ArticleView> feed, ObjectMapper objectMapper) {
+        if (feed.isEmpty()) {
+            encoded.put(key, EMPTY);
+            return;
+        }
+        try {
+            encoded.put(key, Encoded.of(objectMapper.writeValueAsBytes(feed)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int partitionOf(String sentiment) {
+        SentimentLabel label = labelOf(sentiment);
+        return label == null ? OTHER : label.ordinal();
+    }
+
+    private static SentimentLabel labelOf(String sentiment) {
+        if (sentiment == null) {
+            return null;
+        }
+        try {
+            return SentimentLabel.valueOf(sentiment.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // All articles, newest first
+    public List<ArticleView> articles() {
+        return Collections.unmodifiableList(Arrays.asList(articles));
+    }
+
+    // Articles with this sentiment (case-insensitive), newest first; null or blank means all
+    public List<ArticleView> articles(String sentiment) {
+        if (sentiment == null || sentiment.isBlank()) {
+            return articles();
+        }
+        SentimentLabel label = labelOf(sentiment);
+        if (label == null) {
+            return List.of();
+        }
+        List<ArticleView> slice = Arrays.asList(bySentiment)
+                .subList(partitionStarts[label.ordinal()], partitionStarts[label.ordinal() + 1]);
+        return Collections.unmodifiableList(slice);
+    }
+
+    // Pre-serialized JSON of articles(sentiment)
+    public Encoded encoded(String sentiment) {
+        if (sentiment == null || sentiment.isBlank()) {
+            return encoded.getOrDefault(ALL, EMPTY);
+        }
+        SentimentLabel label = labelOf(sentiment);
+        return label == null ? EMPTY : encoded.getOrDefault(label.name(), EMPTY);
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    public int size() {
+        return articles.length;
+    }
+
+    /**
+     * A feed's JSON as UTF-8 and gzip bytes, with a strong ETag for each. The tags are derived
+     * from the content, so an unchanged feed keeps its tags across refreshes.
+     */
+    public static final class Encoded {
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+        private final String gzipEtag;
+
+        private Encoded(byte[] json, byte[] gzip, String etag, String gzipEtag) {
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = etag;
+            this.gzipEtag = gzipEtag;
+        }
+
+        static Encoded of(byte[] json) {
+            String digest = digest(json);
+            return new Encoded(json, gzip(json), "\"" + digest + "\"", "\"" + digest + "-gzip\"");
+        }
+
+        // Callers must not modify the returned arrays
+        public byte[] json() {
+            return json;
+        }
+
+        public byte[] gzip() {
+            return gzip;
+        }
+
+        public String etag() {
+            return etag;
+        }
+
+        public String gzipEtag() {
+            return gzipEtag;
+        }
+
+        private static String digest(byte[] bytes) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static byte[] gzip(byte[] bytes) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -1,95 +1,372 @@
 package com.newsanalyzer.api.services;
 
-import com.newsanalyzer.api.models.external.NewsApiResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.newsanalyzer.api.models.external.NewsApiArticle;
 import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.models.SentimentLabel;
+import com.newsanalyzer.api.services.NewsApiRateLimiter.Priority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
 
 @Service
 public class ExternalNewsService {
-    
+
+    private static final Logger logger = LoggerFactory.getLogger(ExternalNewsService.class);
+
     private final WebClient webClient;
-    
+
+    private final ObjectMapper objectMapper;
+
+    private final NewsApiRateLimiter rateLimiter;
+
+    private final NewsMetrics newsMetrics;
+
     @Value("${newsapi.key}")
     private String apiKey;
-    
+
     @Value("${newsapi.url}")
     private String apiUrl;
-    
+
     @Value("${newsapi.pageSize}")
     private int pageSize;
-    
+
+    // Countries fetched at the same time
+    @Value("${newsapi.concurrency:4}")
+    private int concurrency = 4;
+
+    // Longest wait for the response to start, or between two chunks of it
+    @Value("${newsapi.timeoutMillis:10000}")
+    private long timeoutMillis = 10000;
+
+    @Value("${newsapi.retries:2}")
+    private int retries = 2;
+
+    // First retry delay; doubles per attempt, +/-50% jitter
+    @Value("${newsapi.retryBackoffMillis:250}")
+    private long retryBackoffMillis = 250;
+
+    // Per-country high-watermarks of what the feed has delivered and the caller has stored
+    private final ConcurrentHashMap<String, Watermark> watermarks = new ConcurrentHashMap<>();
+
     // Constructor - Spring will inject WebClient
-    public ExternalNewsService(WebClient.Builder webClientBuilder) {
+    public ExternalNewsService(WebClient.Builder webClientBuilder, ObjectMapper objectMapper,
+                               NewsApiRateLimiter rateLimiter, NewsMetrics newsMetrics) {
         this.webClient = webClientBuilder.build();
+        this.objectMapper = objectMapper;
+        this.rateLimiter = rateLimiter;
+        this.newsMetrics = newsMetrics;
     }
-    
+
+    // Blocking single-country fetch (used by the test endpoint, so it jumps the background queue).
+    // Nothing is stored, so the watermark stays where it is.
     public List<NewsArticle> fetchNewsByCountry(String country) {
-        try {
-            // Build the API URL with parameters
-            String url = String.format("%s?country=%s&pageSize=%d&apiKey=%s", 
-                                     apiUrl, country, pageSize, apiKey);
-            
-            // Make HTTP GET request
-            NewsApiResponse response = webClient
-                    .get()
-                    .uri(url)
-                    .retrieve()
-                    .bodyToMono(NewsApiResponse.class)
-                    .block(); // Block to wait for response (synchronous)
-            
-            if (response != null && response.getArticles() != null) {
-                // Transform NewsApiArticle -> NewsArticle
-                return response.getArticles().stream()
-                        .map(apiArticle -> transformToNewsArticle(apiArticle, country))
-                        .filter(article -> article.getTitle() != null) // Remove null titles
-                        .collect(Collectors.toList());
-            }
-            
-            return List.of(); // Return empty list if no data
-            
-        } catch (Exception e) {
-            System.err.println("Error fetching news for country: " + country + " - " + e.getMessage());
-            return List.of(); // Return empty list on error
+        return fetchNews(List.of(country), Priority.INTERACTIVE, this::logFetchError, (c, watermark) -> {})
+                .collectList().block();
+    }
+
+    // All countries at once; a country that still fails after retries is logged and skipped.
+    // The watermarks stay where they are.
+    public Flux<NewsArticle> fetchNews(List<String> countries) {
+        return fetchNews(countries, Priority.BACKGROUND, this::logFetchError, (country, watermark) -> {});
+    }
+
+    private void logFetchError(String country, Throwable e) {
+        logger.warn("Error fetching news for country {}: {}", country, e.toString());
+    }
+
+    // Moves the country's watermark up to a response whose articles are now stored
+    void commitWatermark(String country, Watermark watermark) {
+        watermarks.put(country, watermark);
+    }
+
+    /**
+     * Fans out over {@code countries}, at most {@code newsapi.concurrency} requests in flight, and
+     * emits articles as each response is decoded, so countries interleave in arrival order.
+     * Every request (retries included) waits for a {@link NewsApiRateLimiter} token in the
+     * {@code priority} lane. {@code onError} gets each country whose fetch failed for good; the
+     * others carry on.
+     * <p>
+     * {@code onFetched} gets each country's next watermark once its response has been read to the
+     * end. It is not applied here: pass it to {@link #commitWatermark} once the country's articles
+     * are stored, so articles that never made it to the database are delivered again next time.
+     */
+    public Flux<NewsArticle> fetchNews(List<String> countries, Priority priority,
+                                       BiConsumer<String, Throwable> onError,
+                                       BiConsumer<String, Watermark> onFetched) {
+        return Flux.fromIterable(countries)
+                .flatMap(country -> Flux.defer(() -> {
+                    long start = System.nanoTime();
+                    return fetchCountry(country, priority, onFetched)
+                            .doOnComplete(() -> newsMetrics.recordFetch(country, "success", System.nanoTime() - start))
+                            .onErrorResume(e -> {
+                                newsMetrics.recordFetch(country, "error", System.nanoTime() - start);
+                                onError.accept(country, e);
+                                return Flux.empty();
+                            });
+                }), Math.max(1, concurrency));
+    }
+
+    /**
+     * One country's headlines, decoded article by article as the body arrives. The request is
+     * conditional on the last response's validators (a 304 is an empty result), and articles at
+     * or behind the country's watermark are dropped before they become {@link NewsArticle}s.
+     * The next watermark goes to {@code onFetched} once a response has been read to the end.
+     */
+    private Flux<NewsArticle> fetchCountry(String country, Priority priority,
+                                           BiConsumer<String, Watermark> onFetched) {
+        // The timeout starts once the limiter lets the request go, not while it queues
+        return rateLimiter.acquire(priority).thenMany(Flux.defer(() -> {
+                    Watermark watermark = watermarks.getOrDefault(country, Watermark.NONE);
+                    // publishedAt is parsed as UTC, so "now" has to be too
+                    Watermark.Builder next = watermark.advance(LocalDateTime.now(ZoneOffset.UTC));
+                    ArticleDecoder decoder = new ArticleDecoder();
+                    return webClient
+                            .get()
+                            .uri(apiUrl + "?country={country}&pageSize={pageSize}&apiKey={apiKey}",
+                                    country, pageSize, apiKey)
+                            .headers(headers -> {
+                                if (watermark.etag() != null) {
+                                    headers.set(HttpHeaders.IF_NONE_MATCH, watermark.etag());
+                                }
+                                if (watermark.lastModified() != null) {
+                                    headers.set(HttpHeaders.IF_MODIFIED_SINCE, watermark.lastModified());
+                                }
+                            })
+                            .exchangeToFlux(response -> {
+                                rateLimiter.onResponse(response.statusCode().value(), response.headers().asHttpHeaders());
+                                if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                                    return Flux.<NewsArticle>empty();
+                                }
+                                if (response.statusCode().isError()) {
+                                    return response.createException().flatMapMany(Flux::error);
+                                }
+                                HttpHeaders headers = response.headers().asHttpHeaders();
+                                return response.bodyToFlux(DataBuffer.class)
+                                        .concatMapIterable(decoder::feed)
+                                        .concatWith(Flux.defer(() -> Flux.fromIterable(decoder.finish())))
+                                        .filter(apiArticle -> apiArticle.getTitle() != null) // Remove null titles
+                                        .<NewsArticle>handle((apiArticle, sink) -> {
+                                            LocalDateTime publishedAt = parsePublishedAt(apiArticle);
+                                            next.observe(publishedAt, apiArticle.getUrl());
+                                            if (!watermark.hasSeen(publishedAt, apiArticle.getUrl())) {
+                                                sink.next(transformToNewsArticle(apiArticle, country, publishedAt));
+                                            }
+                                        })
+                                        .doOnComplete(() -> onFetched.accept(country, next.build(
+                                                headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED))));
+                            })
+                            .timeout(Duration.ofMillis(timeoutMillis));
+                }))
+                // A retried attempt may re-emit articles; the pipeline's dedupe stage drops repeats
+                .retryWhen(Retry.backoff(retries, Duration.ofMillis(retryBackoffMillis))
+                        .jitter(0.5)
+                        .filter(ExternalNewsService::isTransient)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    // Timeouts, connection failures, 5xx and 429 are worth another try; other errors are not
+    private static boolean isTransient(Throwable e) {
+        if (e instanceof TimeoutException || e instanceof WebClientRequestException) {
+            return true;
+        }
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError()
+                    || response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
         }
+        return false;
     }
-    
+
     // Transform external API data to our internal model
-    private NewsArticle transformToNewsArticle(NewsApiArticle apiArticle, String country) {
+    private NewsArticle transformToNewsArticle(NewsApiArticle apiArticle, String country, LocalDateTime publishedAt) {
         NewsArticle article = new NewsArticle();
-        
+
         article.setTitle(apiArticle.getTitle());
         article.setDescription(apiArticle.getDescription());
         article.setUrl(apiArticle.getUrl());
         article.setCountry(country.toLowerCase());
         article.setSource(apiArticle.getSource() != null ? apiArticle.getSource().getName() : "Unknown");
-        
-        // Parse publishedAt string to LocalDateTime
-        if (apiArticle.getPublishedAt() != null) {
+        article.setPublishedAt(publishedAt != null ? publishedAt : LocalDateTime.now()); // Fallback
+
+        // We'll add sentiment analysis later - for now set as NEUTRAL
+        article.setSentiment(SentimentLabel.NEUTRAL.name());
+
+        return article;
+    }
+
+    // Parse publishedAt string to LocalDateTime; null when missing or malformed
+    private static LocalDateTime parsePublishedAt(NewsApiArticle apiArticle) {
+        if (apiArticle.getPublishedAt() == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(apiArticle.getPublishedAt().replace("Z", ""), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * How far a country's feed has been read: the newest publication time seen, the URLs published
+     * at exactly that time (the feed has second precision, so ties are common), and the validators
+     * of the last full response. Undated articles and articles without a URL never count as seen.
+     */
+    record Watermark(LocalDateTime latest, Set<String> urlsAtLatest, String etag, String lastModified) {
+
+        static final Watermark NONE = new Watermark(null, Set.of(), null, null);
+
+        boolean hasSeen(LocalDateTime publishedAt, String url) {
+            if (publishedAt == null || url == null || latest == null) {
+                return false;
+            }
+            return publishedAt.isBefore(latest) || (publishedAt.equals(latest) && urlsAtLatest.contains(url));
+        }
+
+        // Collects the next watermark from a response, ignoring times after now (clock skew)
+        Builder advance(LocalDateTime now) {
+            return new Builder(this, now);
+        }
+
+        static final class Builder {
+            private final LocalDateTime now;
+            private LocalDateTime latest;
+            private final Set<String> urlsAtLatest;
+
+            private Builder(Watermark from, LocalDateTime now) {
+                this.now = now;
+                this.latest = from.latest;
+                this.urlsAtLatest = new HashSet<>(from.urlsAtLatest);
+            }
+
+            void observe(LocalDateTime publishedAt, String url) {
+                if (publishedAt == null || url == null || publishedAt.isAfter(now)) {
+                    return;
+                }
+                if (latest == null || publishedAt.isAfter(latest)) {
+                    latest = publishedAt;
+                    urlsAtLatest.clear();
+                }
+                if (publishedAt.equals(latest)) {
+                    urlsAtLatest.add(url);
+                }
+            }
+
+            Watermark build(String etag, String lastModified) {
+                return new Watermark(latest, Set.copyOf(urlsAtLatest), etag, lastModified);
+            }
+        }
+    }
+
+    /**
+     * Incremental decoder for a NewsAPI response body. Chunks go through Jackson's non-blocking
+     * parser; each element of the top-level "articles" array is buffered as tokens and bound to a
+     * {@link NewsApiArticle} as soon as its closing brace arrives, so the body is never held whole.
+     */
+    private final class ArticleDecoder {
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private int depth;
+        private String field;
+        private boolean inArticles;
+        private TokenBuffer article;
+        private String status;
+        private String message;
+
+        ArticleDecoder() {
             try {
-                LocalDateTime publishedAt = LocalDateTime.parse(
-                    apiArticle.getPublishedAt().replace("Z", ""),
-                    DateTimeFormatter.ISO_LOCAL_DATE_TIME
-                );
-                article.setPublishedAt(publishedAt);
-            } catch (Exception e) {
-                article.setPublishedAt(LocalDateTime.now()); // Fallback
+                parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-        } else {
-            article.setPublishedAt(LocalDateTime.now());
+            feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        List<NewsApiArticle> feed(DataBuffer buffer) {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            DataBufferUtils.release(buffer);
+            try {
+                feeder.feedInput(bytes, 0, bytes.length);
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        List<NewsApiArticle> finish() {
+            feeder.endOfInput();
+            try {
+                List<NewsApiArticle> articles = drain();
+                if ("error".equals(status)) {
+                    throw new IllegalStateException("NewsAPI error: " + message);
+                }
+                return articles;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private List<NewsApiArticle> drain() throws IOException {
+            List<NewsApiArticle> articles = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (article == null && inArticles && depth == 2 && token == JsonToken.START_OBJECT) {
+                    article = new TokenBuffer(parser);
+                }
+                if (article != null) {
+                    article.copyCurrentEvent(parser);
+                }
+
+                if (token.isStructStart()) {
+                    depth++;
+                    inArticles |= depth == 2 && token == JsonToken.START_ARRAY && "articles".equals(field);
+                } else if (token.isStructEnd()) {
+                    depth--;
+                    if (article != null && depth == 2) {
+                        articles.add(objectMapper.readValue(article.asParser(), NewsApiArticle.class));
+                        article = null;
+                    } else if (depth == 1) {
+                        inArticles = false;
+                    }
+                } else if (depth == 1 && token == JsonToken.FIELD_NAME) {
+                    field = parser.currentName();
+                } else if (depth == 1 && token == JsonToken.VALUE_STRING) {
+                    if ("status".equals(field)) {
+                        status = parser.getText();
+                    } else if ("message".equals(field)) {
+                        message = parser.getText();
+                    }
+                }
+            }
+            return articles;
         }
-        
-        // We'll add sentiment analysis later - for now set as NEUTRAL
-        article.setSentiment("NEUTRAL");
-        
-        return article;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,539 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.config.AsyncConfig;
+import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.services.NewsApiRateLimiter.Priority;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Staged ingestion: fetch -> dedupe -> score -> persist -> cache refresh.
+ * <p>
+ * Stages hand chunks of articles to each other through bounded queues, so a slow stage makes the
+ * ones upstream wait instead of piling up articles in memory. Each stage runs its own number of
+ * workers, persistence is batched, and every cycle reports how long each stage was busy.
+ */
+@Service
+public class IngestionPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionPipeline.class);
+
+    // End-of-stream marker passed down the queues
+    private static final Chunk END = new Chunk(null, List.of());
+
+    @Autowired
+    private MockNewsService mockNewsService;
+
+    @Autowired
+    private ExternalNewsService externalNewsService;
+
+    @Autowired
+    private SyntheticNewsService syntheticNewsService;
+
+    @Autowired
+    private SentimentAnalysisService sentimentAnalysisService;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private NewsMetrics newsMetrics;
+
+    @Value("${ingestion.source:mock}")
+    private String source;
+
+    @Value("${ingestion.queueCapacity:16}")
+    private int queueCapacity;
+
+    @Value("${ingestion.fetchParallelism:2}")
+    private int fetchParallelism;
+
+    @Value("${ingestion.dedupeParallelism:1}")
+    private int dedupeParallelism;
+
+    @Value("${ingestion.scoreParallelism:2}")
+    private int scoreParallelism;
+
+    @Value("${ingestion.persistParallelism:1}")
+    private int persistParallelism;
+
+    @Value("${ingestion.batchSize:100}")
+    private int batchSize;
+
+    // Fraction of scored articles traced at DEBUG; the summary per cycle is all INFO gets
+    @Value("${ingestion.traceSampleRate:0.01}")
+    private double traceSampleRate;
+
+    private final ConcurrentHashMap<String, ReentrantLock> countryLocks = new ConcurrentHashMap<>();
+    // Stage workers mostly wait on queues, the network and the DB; scoring's CPU work runs on
+    // the batch pool, so in virtual mode every worker can be a virtual thread
+    @Value("${async.mode:platform}")
+    private String asyncMode;
+
+    private final AtomicInteger workerIds = new AtomicInteger();
+    private ExecutorService workers;
+
+    @PostConstruct
+    public void initialize() {
+        if (AsyncConfig.isVirtualMode(asyncMode)) {
+            workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Ingest-", 1).factory());
+        } else {
+            workers = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "Ingest-" + workerIds.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Runs one background ingestion cycle over the given countries and blocks until it is done.
+     * Each persisted batch is handed to {@code persisted}; countries that received new articles
+     * are handed to {@code cacheRefresher} at the end.
+     */
+    public CycleReport runCycle(List<String> countries, Consumer<List<NewsArticle>> persisted,
+                                Consumer<String> cacheRefresher) {
+        return runCycle(countries, Priority.BACKGROUND, persisted, cacheRefresher);
+    }
+
+    /**
+     * As above, with the rate-limiter lane the cycle's NewsAPI requests queue in. Cycles over
+     * disjoint countries run side by side; a cycle waits for any running cycle that shares one of
+     * its countries, since both would try to insert the same new articles.
+     */
+    public CycleReport runCycle(List<String> countries, Priority priority,
+                                Consumer<List<NewsArticle>> persisted,
+                                Consumer<String> cacheRefresher) {
+        // Sorted, so two multi-country cycles always lock in the same order
+        List<ReentrantLock> locks = countries.stream()
+                .distinct()
+                .sorted()
+                .map(country -> countryLocks.computeIfAbsent(country, c -> new ReentrantLock()))
+                .toList();
+        locks.forEach(ReentrantLock::lock);
+        try {
+            return runLockedCycle(countries, priority, persisted, cacheRefresher);
+        } finally {
+            locks.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    private CycleReport runLockedCycle(List<String> countries, Priority priority,
+                                       Consumer<List<NewsArticle>> persisted,
+                                       Consumer<String> cacheRefresher) {
+        long cycleStart = System.nanoTime();
+        Cycle cycle = new Cycle(newsMetrics);
+
+        // A single fetch worker drains the fan-out; the fetch concurrency lives in the Flux
+        BlockingQueue<Chunk> fetchQueue = new LinkedBlockingQueue<>(List.of(new Chunk(null, List.of()), END));
+        countries.forEach(country -> cycle.fetchedByCountry.put(country, 0));
+
+        BlockingQueue<Chunk> dedupeQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Chunk> scoreQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Chunk> persistQueue = new ArrayBlockingQueue<>(queueCapacity);
+
+        List<Future<?>> running = new ArrayList<>();
+        start(running, cycle.fetch, 1, fetchQueue, dedupeQueue, () -> new StageWorker() {
+            @Override
+            void process(Chunk chunk) throws InterruptedException {
+                // Runs of one country's articles, handed on as they arrive; emit() blocking here
+                // holds back the Flux's demand, so a slow pipeline slows the fetch down
+                Flux<List<NewsArticle>> batches = fetch(countries, priority, cycle)
+                        .bufferUntilChanged(NewsArticle::getCountry);
+                try {
+                    for (List<NewsArticle> articles : batches.toIterable()) {
+                        String country = articles.get(0).getCountry();
+                        cycle.fetchedByCountry.merge(country, articles.size(), Integer::sum);
+                        cycle.fetch.articles.add(articles.size());
+                        newsMetrics.articlesFetched(country, articles.size());
+                        emit(new Chunk(country, articles));
+                    }
+                } catch (RuntimeException e) {
+                    // Whatever was still buffered is gone, so no country's watermark can move
+                    cycle.failedCountries.addAll(countries);
+                    throw e;
+                }
+            }
+        });
+        start(running, cycle.dedupe, dedupeParallelism, dedupeQueue, scoreQueue, () -> new StageWorker() {
+            @Override
+            void process(Chunk chunk) throws InterruptedException {
+                List<NewsArticle> fresh = new ArrayList<>();
+                for (NewsArticle article : chunk.articles()) {
+                    // Drop stale articles and repeats within this cycle before touching the DB
+                    if (isRecentArticle(article) && cycle.seen.add(article.getUrl() + "|" + article.getCountry())) {
+                        fresh.add(article);
+                    }
+                }
+                List<NewsArticle> unseen = newsService.filterNewArticles(fresh);
+                newsMetrics.articlesDeduped(chunk.country(), chunk.articles().size() - unseen.size());
+                emit(new Chunk(chunk.country(), unseen));
+            }
+        });
+        start(running, cycle.score, scoreParallelism, scoreQueue, persistQueue, () -> new StageWorker() {
+            @Override
+            void process(Chunk chunk) throws InterruptedException {
+                List<String> texts = chunk.articles().stream()
+                        .map(SentimentAnalysisService::buildAnalysisText)
+                        .toList();
+                SentimentBatch results = sentimentAnalysisService.analyzeBatchColumnar(texts);
+                for (int i = 0; i < results.size(); i++) {
+                    chunk.articles().get(i).setSentimentData(results.label(i).name(), results.score(i), results.confidence(i));
+                }
+                traceSample(chunk.articles());
+                newsMetrics.articlesScored(chunk.country(), results.size());
+                emit(chunk);
+            }
+        });
+        start(running, cycle.persist, persistParallelism, persistQueue, null, () -> new StageWorker() {
+            private final List<NewsArticle> buffer = new ArrayList<>();
+
+            @Override
+            void process(Chunk chunk) {
+                buffer.addAll(chunk.articles());
+                if (buffer.size() >= batchSize) {
+                    flush();
+                }
+            }
+
+            @Override
+            void finish() {
+                flush();
+            }
+
+            private void flush() {
+                if (buffer.isEmpty()) {
+                    return;
+                }
+                List<NewsArticle> batch = new ArrayList<>(buffer);
+                buffer.clear();
+                List<NewsArticle> saved;
+                try {
+                    saved = persist(batch);
+                } catch (RuntimeException e) {
+                    // A batch can span countries: none of them may move its watermark past it
+                    batch.forEach(article -> cycle.failedCountries.add(article.getCountry()));
+                    throw e;
+                }
+                persisted.accept(saved);
+                Map<String, Integer> savedNow = new TreeMap<>();
+                saved.forEach(article -> savedNow.merge(article.getCountry(), 1, Integer::sum));
+                savedNow.forEach((country, count) -> {
+                    cycle.savedByCountry.merge(country, count, Integer::sum);
+                    cycle.touchedCountries.add(country);
+                    newsMetrics.articlesSaved(country, count);
+                });
+            }
+
+            private List<NewsArticle> persist(List<NewsArticle> batch) {
+                try {
+                    return newsMetrics.timePersist(() -> newsService.persistArticles(batch));
+                } catch (DataIntegrityViolationException e) {
+                    // Some of the batch was stored since it was deduped (or the filter missed it):
+                    // drop whatever is in the table now and save the rest, rather than all of it
+                    List<NewsArticle> retry = newsService.recheckNewArticles(batch);
+                    retry.forEach(article -> article.setId(null)); // Ids handed out to the rolled-back insert
+                    logger.warn("Persist batch of {} hit a stored article, retrying {} new ones",
+                            batch.size(), retry.size());
+                    return newsMetrics.timePersist(() -> newsService.persistArticles(retry));
+                }
+            }
+        });
+
+        // Feed watermarks move only past articles that are stored now: a country that failed
+        // anywhere along the way is fetched in full again next cycle, and dedupe drops what did land
+        if (awaitAll(running)) {
+            cycle.fetchedWatermarks.forEach((country, watermark) -> {
+                if (!cycle.failedCountries.contains(country)) {
+                    externalNewsService.commitWatermark(country, watermark);
+                }
+            });
+        }
+
+        // Cache refresh, once per country that got new articles
+        for (String country : cycle.touchedCountries) {
+            long refreshStart = System.nanoTime();
+            try {
+                cacheRefresher.accept(country);
+                long nanos = System.nanoTime() - refreshStart;
+                cycle.cache.record(country, 1, nanos);
+                newsMetrics.recordCacheRefresh(country, nanos);
+            } catch (Exception e) {
+                cycle.cache.failed(country, 1);
+                cycle.cache.busyNanos.add(System.nanoTime() - refreshStart);
+                logger.error("Cache refresh failed for {}", country, e);
+            }
+        }
+
+        return new CycleReport(
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - cycleStart),
+                new TreeMap<>(cycle.fetchedByCountry),
+                new TreeMap<>(cycle.savedByCountry),
+                List.of(cycle.fetch.timing(), cycle.dedupe.timing(), cycle.score.timing(),
+                        cycle.persist.timing(), cycle.cache.timing()));
+    }
+
+    private Flux<NewsArticle> fetch(List<String> countries, Priority priority, Cycle cycle) {
+        BiConsumer<String, Throwable> onError = (country, e) -> {
+            cycle.fetch.failed(country, 1);
+            logger.error("Fetch failed for {}", country, e);
+        };
+        if ("newsapi".equals(source)) {
+            return externalNewsService.fetchNews(countries, priority, onError, cycle.fetchedWatermarks::put);
+        }
+        Function<String, List<NewsArticle>> generator = "synthetic".equals(source)
+                ? syntheticNewsService::getArticles
+                : mockNewsService::getMockNewsForCountry;
+        return Flux.fromIterable(countries)
+                .flatMap(country -> Mono.fromCallable(() -> generator.apply(country))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMapIterable(articles -> articles)
+                        .onErrorResume(e -> {
+                            onError.accept(country, e);
+                            return Flux.empty();
+                        }), Math.max(1, fetchParallelism));
+    }
+
+    // Sampled per-article traces; with DEBUG off this is one level check per chunk
+    private void traceSample(List<NewsArticle> articles) {
+        if (traceSampleRate <= 0 || !logger.isDebugEnabled()) {
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (NewsArticle article : articles) {
+            if (traceSampleRate >= 1 || random.nextDouble() < traceSampleRate) {
+                logger.debug("Scored [{}] {} -> {} (score {}, confidence {})", article.getCountry(),
+                        article.getUrl(), article.getSentiment(), article.getSentimentScore(),
+                        article.getSentimentConfidence());
+            }
+        }
+    }
+
+    private boolean isRecentArticle(NewsArticle article) {
+        if (article.getPublishedAt() == null) return true;
+        return article.getPublishedAt().isAfter(LocalDateTime.now().minusHours(NewsService.RETENTION_HOURS));
+    }
+
+    private void start(List<Future<?>> running, StageStats stats, int parallelism,
+                       BlockingQueue<Chunk> input, BlockingQueue<Chunk> output,
+                       Supplier<StageWorker> workerFactory) {
+        int workerCount = Math.max(1, parallelism);
+        AtomicInteger remaining = new AtomicInteger(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            StageWorker worker = workerFactory.get();
+            worker.bind(stats, input, output, remaining);
+            running.add(workers.submit(worker));
+        }
+    }
+
+    // False if a stage died or the wait was interrupted
+    private boolean awaitAll(List<Future<?>> running) {
+        boolean completed = true;
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running.forEach(f -> f.cancel(true));
+                return false;
+            } catch (ExecutionException e) {
+                completed = false;
+                logger.error("Ingestion stage failed", e.getCause());
+            }
+        }
+        return completed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // A country's worth of articles moving between stages
+    private record Chunk(String country, List<NewsArticle> articles) {}
+
+    // One worker of a stage: takes chunks until END, then the last worker out passes END on
+    private abstract static class StageWorker implements Runnable {
+        private StageStats stats;
+        private BlockingQueue<Chunk> input;
+        private BlockingQueue<Chunk> output;
+        private AtomicInteger remaining;
+
+        void bind(StageStats stats, BlockingQueue<Chunk> input, BlockingQueue<Chunk> output, AtomicInteger remaining) {
+            this.stats = stats;
+            this.input = input;
+            this.output = output;
+            this.remaining = remaining;
+        }
+
+        abstract void process(Chunk chunk) throws Exception;
+
+        void finish() throws Exception {
+        }
+
+        // Blocks while the next stage's queue is full (backpressure)
+        void emit(Chunk chunk) throws InterruptedException {
+            if (output != null && !chunk.articles().isEmpty()) {
+                output.put(chunk);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Chunk chunk = input.take();
+                    if (chunk == END) {
+                        input.put(END); // Let the other workers of this stage see it too
+                        break;
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        process(chunk);
+                    } catch (InterruptedException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        stats.failed(chunk.country(), chunk.articles().size());
+                        logger.error("Ingestion stage {} failed for {}", stats.name, chunk.country(), e);
+                    }
+                    stats.record(chunk.country(), chunk.articles().size(), System.nanoTime() - start);
+                }
+
+                long start = System.nanoTime();
+                try {
+                    finish();
+                } catch (Exception e) {
+                    stats.failed(null, 0);
+                    logger.error("Ingestion stage {} failed to finish", stats.name, e);
+                }
+                stats.busyNanos.add(System.nanoTime() - start);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (remaining.decrementAndGet() == 0 && output != null) {
+                    try {
+                        output.put(END);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class StageStats {
+        private final String name;
+        private final NewsMetrics metrics;
+        private final Set<String> failedCountries;
+        private final LongAdder chunks = new LongAdder();
+        private final LongAdder articles = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final Queue<Long> chunkNanos = new ConcurrentLinkedQueue<>();
+
+        StageStats(String name, NewsMetrics metrics, Set<String> failedCountries) {
+            this.name = name;
+            this.metrics = metrics;
+            this.failedCountries = failedCountries;
+        }
+
+        void record(String country, int articleCount, long nanos) {
+            chunks.increment();
+            articles.add(articleCount);
+            busyNanos.add(nanos);
+            chunkNanos.add(nanos);
+            metrics.recordStage(name, country, nanos);
+        }
+
+        void failed(String country, int articleCount) {
+            if (country != null) {
+                failedCountries.add(country);
+            }
+            failures.increment();
+            metrics.articlesFailed(name, country, articleCount);
+        }
+
+        StageTiming timing() {
+            return new StageTiming(name, chunks.sum(), articles.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(busyNanos.sum()), failures.sum(),
+                    chunkNanos.stream().map(TimeUnit.NANOSECONDS::toMicros).toList());
+        }
+    }
+
+    // Per-cycle state shared by the stage workers
+    private static final class Cycle {
+        private final StageStats fetch;
+        private final StageStats dedupe;
+        private final StageStats score;
+        private final StageStats persist;
+        private final StageStats cache;
+
+        private final Set<String> seen = ConcurrentHashMap.newKeySet();
+        private final Set<String> touchedCountries = ConcurrentHashMap.newKeySet();
+        // NewsAPI watermarks to commit at the end, unless the country had a failure in any stage
+        private final Map<String, ExternalNewsService.Watermark> fetchedWatermarks = new ConcurrentHashMap<>();
+        private final Set<String> failedCountries = ConcurrentHashMap.newKeySet();
+        private final Map<String, Integer> fetchedByCountry = new ConcurrentHashMap<>();
+        private final Map<String, Integer> savedByCountry = new ConcurrentHashMap<>();
+
+        Cycle(NewsMetrics metrics) {
+            fetch = new StageStats("fetch", metrics, failedCountries);
+            dedupe = new StageStats("dedupe", metrics, failedCountries);
+            score = new StageStats("score", metrics, failedCountries);
+            persist = new StageStats("persist", metrics, failedCountries);
+            cache = new StageStats("cache", metrics, failedCountries);
+        }
+    }
+
+    // Time a stage spent working (summed over its workers), what went through it, and how long
+    // each chunk took (the fetch stage's one chunk is the whole fan-out)
+    public record StageTiming(String stage, long chunks, long articles, long busyMillis, long failures,
+                              List<Long> chunkMicros) {}
+
+    public record CycleReport(long wallMillis, Map<String, Integer> fetchedByCountry,
+                              Map<String, Integer> savedByCountry, List<StageTiming> stages) {
+
+        public int totalFetched() {
+            return fetchedByCountry.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        public int totalSaved() {
+            return savedByCountry.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+}
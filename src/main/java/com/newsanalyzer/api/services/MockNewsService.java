@@ -1,12 +1,14 @@
 package com.newsanalyzer.api.services;
 
 import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.models.SentimentLabel;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class MockNewsService {
@@ -14,7 +16,16 @@ public class MockNewsService {
     private static final Logger logger = LoggerFactory.getLogger(MockNewsService.class);
     
     // Mock headlines organized by sentiment
-private final Map<String, List<String>> mockHeadlines = new HashMap<>();
+private final Map<SentimentLabel, List<String>> mockHeadlines = new EnumMap<>(SentimentLabel.class);
+
+// Description templates: text before and after the headline
+private static final String[][] DESCRIPTION_TEMPLATES = {
+    {"Breaking news: ", ". More details to follow as story develops."},
+    {"Local authorities report: ", ". Investigation ongoing."},
+    {"Officials confirm: ", ". Full story available online."},
+    {"Latest update: ", ". Residents advised to stay informed."},
+    {"According to sources: ", ". Further information expected soon."}
+};
 
 // Constructor to initialize mock data
 public MockNewsService() {
@@ -64,9 +75,9 @@ private void initializeMockHeadlines() {
         "Government releases quarterly economic statistics"
     );
 
-    mockHeadlines.put("POSITIVE", positiveHeadlines);
-    mockHeadlines.put("NEGATIVE", negativeHeadlines);
-    mockHeadlines.put("NEUTRAL", neutralHeadlines);
+    mockHeadlines.put(SentimentLabel.POSITIVE, positiveHeadlines);
+    mockHeadlines.put(SentimentLabel.NEGATIVE, negativeHeadlines);
+    mockHeadlines.put(SentimentLabel.NEUTRAL, neutralHeadlines);
     
     logger.info("Mock headlines initialized: {} positive, {} negative, {} neutral", 
         positiveHeadlines.size(), negativeHeadlines.size(), neutralHeadlines.size());
@@ -78,23 +89,27 @@ private final List<String> countries = Arrays.asList("us", "gb", "ca", "au", "in
 // Random number generator for realistic data
 private final Random random = new Random();
 
+// Suffix for mock URLs, shared by every instance: url + country is unique in news_articles, and
+// callers that save mock articles directly (tests, benchmarks) skip the dedupe step
+private static final AtomicLong urlSequence = new AtomicLong();
+
 /**
- * Generate a realistic news URL
+ * Generate a realistic news URL, unique within this JVM
  */
 private String generateMockUrl(String country, String headline) {
     String domain = getCountryDomain(country);
     String slug = headline.toLowerCase()
         .replaceAll("[^a-z0-9\\s]", "")  // Remove special characters
-        .replaceAll("\\s+", "-")         // Replace spaces with hyphens
-        .substring(0, Math.min(50, headline.length())); // Limit length
+        .replaceAll("\\s+", "-");        // Replace spaces with hyphens
+    slug = slug.substring(0, Math.min(50, slug.length())); // Limit length
     
-    return "https://" + domain + "/news/" + slug + "-" + random.nextInt(10000);
+    return "https://" + domain + "/news/" + slug + "-" + urlSequence.incrementAndGet();
 }
 
 /**
  * Get realistic domain name for country
  */
-private String getCountryDomain(String country) {
+static String getCountryDomain(String country) {
     switch (country.toLowerCase()) {
         case "us": return "cnn.com";
         case "gb": return "bbc.co.uk";
@@ -111,13 +126,13 @@ private String getCountryDomain(String country) {
  * Generate mock news articles for a specific country
  */
 public List<NewsArticle> generateMockNews(String country, int numberOfArticles) {
-    logger.info("Generating {} mock articles for country: {}", numberOfArticles, country);
+    logger.debug("Generating {} mock articles for country: {}", numberOfArticles, country);
     
     List<NewsArticle> articles = new ArrayList<>();
     
     for (int i = 0; i < numberOfArticles; i++) {
         // Randomly pick a sentiment category
-        String sentiment = getRandomSentiment();
+        SentimentLabel sentiment = getRandomSentiment();
         
         // Get headlines for that sentiment
         List<String> headlines = mockHeadlines.get(sentiment);
@@ -130,37 +145,37 @@ public List<NewsArticle> generateMockNews(String country, int numberOfArticles)
         articles.add(article);
     }
     
-    logger.info("Generated {} mock articles for {}", articles.size(), country);
+    logger.debug("Generated {} mock articles for {}", articles.size(), country);
     return articles;
 }
 
 /**
  * Randomly select a sentiment (with realistic distribution)
  */
-private String getRandomSentiment() {
+private SentimentLabel getRandomSentiment() {
     int rand = random.nextInt(100);
     
     // Realistic news distribution: more negative news typically
     if (rand < 50) {
-        return "NEGATIVE";  // 50% negative (news tends to be negative)
+        return SentimentLabel.NEGATIVE;  // 50% negative (news tends to be negative)
     } else if (rand < 75) {
-        return "NEUTRAL";   // 25% neutral
+        return SentimentLabel.NEUTRAL;   // 25% neutral
     } else {
-        return "POSITIVE";  // 25% positive
+        return SentimentLabel.POSITIVE;  // 25% positive
     }
 }
 
 /**
  * Create a single mock NewsArticle
  */
-private NewsArticle createMockArticle(String country, String headline, String expectedSentiment) {
+private NewsArticle createMockArticle(String country, String headline, SentimentLabel expectedSentiment) {
     NewsArticle article = new NewsArticle();
     
     // Basic article info
     article.setTitle(headline);
     article.setDescription(generateDescription(headline));
     article.setUrl(generateMockUrl(country, headline));
-    article.setCountry(country.toUpperCase());
+    article.setCountry(country.toLowerCase());
     
     // Timestamp (random time in last 6 hours)
     LocalDateTime publishTime = LocalDateTime.now()
@@ -180,21 +195,21 @@ private NewsArticle createMockArticle(String country, String headline, String ex
  * Generate a realistic description from the headline
  */
 private String generateDescription(String headline) {
-    String[] descriptionTemplates = {
-        "Breaking news: " + headline + ". More details to follow as story develops.",
-        "Local authorities report: " + headline + ". Investigation ongoing.",
-        "Officials confirm: " + headline + ". Full story available online.",
-        "Latest update: " + headline + ". Residents advised to stay informed.",
-        "According to sources: " + headline + ". Further information expected soon."
-    };
-    
-    return descriptionTemplates[random.nextInt(descriptionTemplates.length)];
+    return describe(headline, random.nextInt(DESCRIPTION_TEMPLATES.length));
+}
+
+/**
+ * Description for a headline from one of the templates (any int picks one)
+ */
+static String describe(String headline, int template) {
+    String[] parts = DESCRIPTION_TEMPLATES[Math.floorMod(template, DESCRIPTION_TEMPLATES.length)];
+    return parts[0] + headline + parts[1];
 }
 
 /**
  * Get realistic source name for country
  */
-private String getSourceName(String country) {
+static String getSourceName(String country) {
     switch (country.toLowerCase()) {
         case "us": return "CNN News";
         case "gb": return "BBC News";
@@ -230,13 +245,20 @@ public List<NewsArticle> getMockNewsForAllCountries() {
  * Get mock news for a specific country
  */
 public List<NewsArticle> getMockNewsForCountry(String country) {
-    logger.info("Generating mock news for country: {}", country);
+    logger.debug("Generating mock news for country: {}", country);
     
     // Generate 5-10 articles for the country
     int numberOfArticles = 5 + random.nextInt(6);
     return generateMockNews(country, numberOfArticles);
 }
 
+/**
+ * Headlines written to read as the given sentiment
+ */
+public List<String> getHeadlines(SentimentLabel sentiment) {
+    return mockHeadlines.getOrDefault(sentiment, List.of());
+}
+
 /**
  * Get list of supported countries
  */
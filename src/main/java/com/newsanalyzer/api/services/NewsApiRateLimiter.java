@@ -0,0 +1,224 @@
+package com.newsanalyzer.api.services;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket in front of the NewsAPI calls. Callers get a {@link Mono} that completes when a
+ * request may go out, so nothing ever sleeps: waiters are parked in one queue per
+ * {@link Priority} and released by a timer when tokens come back, interactive ones first.
+ * <p>
+ * The rate adapts to the provider: a 429 halves it and pauses the bucket for Retry-After, quota
+ * headers cap it to what's left of the current window, and each successful response wins back a
+ * tenth of the configured rate.
+ */
+@Service
+public class NewsApiRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(NewsApiRateLimiter.class);
+
+    // Epoch seconds from here on; smaller X-RateLimit-Reset values are seconds from now
+    private static final long EPOCH_RESET_THRESHOLD = 1_000_000_000L;
+
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND
+    }
+
+    @Value("${newsapi.rate.requestsPerMinute:60}")
+    private double requestsPerMinute = 60;
+
+    @Value("${newsapi.rate.burst:10}")
+    private int burst = 10;
+
+    // Pause after a 429 that doesn't say how long to wait
+    @Value("${newsapi.rate.defaultRetryAfterSeconds:30}")
+    private long defaultRetryAfterSeconds = 30;
+
+    private final Scheduler timer = Schedulers.parallel();
+    private final List<ArrayDeque<MonoSink<Void>>> lanes = new ArrayList<>();
+    private final AtomicLong throttled = new AtomicLong();
+
+    // Guarded by this
+    private double configuredRate; // per second
+    private double rate;
+    private double tokens;
+    private long refilledAt;
+    private long pausedUntil;
+    // Ceiling from quota headers, until the quota window resets
+    private double quotaRate = Double.MAX_VALUE;
+    private long quotaUntil;
+    private boolean drainScheduled;
+
+    @PostConstruct
+    public void initialize() {
+        synchronized (this) {
+            configuredRate = Math.max(requestsPerMinute, 0.001) / 60.0;
+            rate = configuredRate;
+            tokens = Math.max(1, burst);
+            refilledAt = System.nanoTime();
+            pausedUntil = refilledAt;
+            lanes.clear();
+            for (int i = 0; i < Priority.values().length; i++) {
+                lanes.add(new ArrayDeque<>());
+            }
+        }
+    }
+
+    // Completes once a request of this priority may be sent
+    public Mono<Void> acquire(Priority priority) {
+        return Mono.create(sink -> {
+            synchronized (this) {
+                lanes.get(priority.ordinal()).add(sink);
+            }
+            sink.onCancel(() -> {
+                synchronized (this) {
+                    lanes.get(priority.ordinal()).remove(sink);
+                }
+            });
+            drain();
+        });
+    }
+
+    /**
+     * Feeds a response back into the limiter: 429s (with Retry-After) throttle it, and
+     * X-RateLimit-Remaining / X-RateLimit-Reset keep it within the provider's quota window.
+     */
+    public void onResponse(int status, HttpHeaders headers) {
+        synchronized (this) {
+            long now = System.nanoTime();
+            refill(now);
+            if (status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                Long retryAfter = retryAfterNanos(headers.getFirst(HttpHeaders.RETRY_AFTER));
+                long pause = retryAfter != null ? retryAfter : TimeUnit.SECONDS.toNanos(defaultRetryAfterSeconds);
+                rate = Math.max(configuredRate / 16, rate / 2);
+                tokens = 0;
+                pausedUntil = Math.max(pausedUntil, now + pause);
+                throttled.incrementAndGet();
+                logger.warn("NewsAPI throttled us; pausing {}ms, rate now {}/min",
+                        TimeUnit.NANOSECONDS.toMillis(pause), Math.round(rate * 60));
+            } else if (status < 400) {
+                rate = Math.min(configuredRate, rate + configuredRate / 10);
+            }
+
+            Long remaining = longHeader(headers, "X-RateLimit-Remaining");
+            Long reset = longHeader(headers, "X-RateLimit-Reset");
+            if (remaining != null && reset != null) {
+                long resetNanos = TimeUnit.SECONDS.toNanos(reset >= EPOCH_RESET_THRESHOLD
+                        ? reset - System.currentTimeMillis() / 1000 : reset);
+                if (resetNanos > 0) {
+                    if (remaining <= 0) {
+                        tokens = 0;
+                        pausedUntil = Math.max(pausedUntil, now + resetNanos);
+                    } else {
+                        quotaRate = remaining / (resetNanos / 1e9);
+                        quotaUntil = now + resetNanos;
+                        tokens = Math.min(tokens, remaining);
+                    }
+                }
+            }
+        }
+        drain();
+    }
+
+    // Requests per minute currently allowed (after throttling and quota caps)
+    public synchronized double currentRatePerMinute() {
+        return effectiveRate(System.nanoTime()) * 60;
+    }
+
+    public long throttledCount() {
+        return throttled.get();
+    }
+
+    // Grants every waiter a token allows, highest priority first, then arms the timer for the rest
+    private void drain() {
+        List<MonoSink<Void>> granted = new ArrayList<>();
+        long waitNanos = -1;
+        synchronized (this) {
+            long now = System.nanoTime();
+            refill(now);
+            boolean waiting = false;
+            for (ArrayDeque<MonoSink<Void>> lane : lanes) {
+                while (!lane.isEmpty() && now >= pausedUntil && tokens >= 1) {
+                    tokens -= 1;
+                    granted.add(lane.poll());
+                }
+                waiting |= !lane.isEmpty();
+            }
+            if (waiting && !drainScheduled) {
+                drainScheduled = true;
+                waitNanos = now < pausedUntil
+                        ? pausedUntil - now
+                        : (long) Math.ceil((1 - tokens) / effectiveRate(now) * 1e9);
+            }
+        }
+        // Outside the lock: success() runs the caller's request
+        granted.forEach(MonoSink::success);
+        if (waitNanos >= 0) {
+            timer.schedule(() -> {
+                synchronized (this) {
+                    drainScheduled = false;
+                }
+                drain();
+            }, Math.max(waitNanos, 1), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void refill(long now) {
+        if (now > refilledAt) {
+            tokens = Math.min(Math.max(1, burst), tokens + (now - refilledAt) / 1e9 * effectiveRate(now));
+            refilledAt = now;
+        }
+    }
+
+    private double effectiveRate(long now) {
+        return now < quotaUntil ? Math.min(rate, quotaRate) : rate;
+    }
+
+    // Retry-After is either delta-seconds or an HTTP date
+    private static Long retryAfterNanos(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return TimeUnit.SECONDS.toNanos(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                long millis = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)
+                        .toInstant().toEpochMilli() - System.currentTimeMillis();
+                return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+            } catch (Exception ignored) {
+                return null;
+            }
+        }
+    }
+
+    private static Long longHeader(HttpHeaders headers, String name) {
+        String value = headers.getFirst(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
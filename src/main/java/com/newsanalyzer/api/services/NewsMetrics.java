@@ -0,0 +1,132 @@
+package com.newsanalyzer.api.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Names and tags of the ingestion and scoring metrics, in one place. Timers publish percentile
+ * histograms; everything about one country is tagged with it ({@code all} when a batch spans
+ * several, {@code other} for anything that isn't a two-letter code, to keep the tag bounded).
+ * Exposed at /actuator/metrics and /actuator/prometheus.
+ */
+@Service
+public class NewsMetrics {
+
+    private static final String ALL_COUNTRIES = "all";
+
+    private final MeterRegistry registry;
+    private final Timer sentimentAnalyze;
+    private final Timer sentimentBatch;
+    private final Timer persist;
+
+    public NewsMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.sentimentAnalyze = timer("sentiment.analyze", "Scoring one text (cache misses only)").register(registry);
+        this.sentimentBatch = timer("sentiment.batch", "Scoring a batch: dedupe, cache lookup, scoring misses").register(registry);
+        this.persist = timer("news.persist", "One batched saveAll of new articles").register(registry);
+    }
+
+    // Request to last article for one country, limiter wait and retries included
+    public void recordFetch(String country, String outcome, long nanos) {
+        timer("news.fetch", "NewsAPI fetch of one country")
+                .tags("country", country(country), "outcome", outcome)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // One chunk through one pipeline stage
+    public void recordStage(String stage, String country, long nanos) {
+        timer("news.pipeline.stage", "One chunk of articles through an ingestion stage")
+                .tags("stage", stage, "country", country(country))
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCacheRefresh(String country, long nanos) {
+        timer("news.cache.refresh", "Rebuilding a country's cached feed")
+                .tags("country", country(country))
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> T timeSentiment(Supplier<T> scoring) {
+        return sentimentAnalyze.record(scoring);
+    }
+
+    public <T> T timeSentimentBatch(Supplier<T> scoring) {
+        return sentimentBatch.record(scoring);
+    }
+
+    public <T> T timePersist(Supplier<T> saving) {
+        return persist.record(saving);
+    }
+
+    public void articlesFetched(String country, int count) {
+        articles("news.articles.fetched", "Articles received from the source", country).increment(count);
+    }
+
+    // Dropped by dedupe: stale, repeated within the cycle, or already stored
+    public void articlesDeduped(String country, int count) {
+        articles("news.articles.deduped", "Articles dropped as stale or already known", country).increment(count);
+    }
+
+    public void articlesScored(String country, int count) {
+        articles("news.articles.scored", "Articles given a sentiment", country).increment(count);
+    }
+
+    public void articlesSaved(String country, int count) {
+        articles("news.articles.saved", "New articles written to the database", country).increment(count);
+    }
+
+    // Articles in a chunk a stage failed on (a failed fetch counts as one)
+    public void articlesFailed(String stage, String country, int count) {
+        Counter.builder("news.articles.failed")
+                .description("Articles lost to a failed stage")
+                .baseUnit("articles")
+                .tags("stage", stage, "country", country(country))
+                .register(registry)
+                .increment(Math.max(1, count));
+    }
+
+    // Lookups of the pre-serialized per-country feeds
+    public void snapshotLookup(String country, boolean hit) {
+        Counter.builder("news.snapshot.lookups")
+                .description("Cached feed lookups")
+                .tags("country", country(country), "result", hit ? "hit" : "miss")
+                .register(registry)
+                .increment();
+    }
+
+    private Counter articles(String name, String description, String country) {
+        return Counter.builder(name)
+                .description(description)
+                .baseUnit("articles")
+                .tags("country", country(country))
+                .register(registry);
+    }
+
+    private static Timer.Builder timer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram();
+    }
+
+    private static String country(String country) {
+        if (country == null) {
+            return ALL_COUNTRIES;
+        }
+        if (country.length() == 2 && isLetter(country.charAt(0)) && isLetter(country.charAt(1))) {
+            return country;
+        }
+        return ALL_COUNTRIES.equals(country) ? country : "other";
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+}
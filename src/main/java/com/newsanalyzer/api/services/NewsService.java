@@ -1,22 +1,56 @@
 package com.newsanalyzer.api.services;
 
+import com.newsanalyzer.api.models.ArticleCursor;
+import com.newsanalyzer.api.models.ArticlePage;
 import com.newsanalyzer.api.models.NewsArticle;
 import com.newsanalyzer.api.repositories.NewsArticleRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class NewsService {
     
+    private static final Logger logger = LoggerFactory.getLogger(NewsService.class);
+    
+    // How long articles are kept; the trend series covers the same window
+    public static final int RETENTION_HOURS = 24;
+    
+    // Max urls per IN (...) list in the duplicate check
+    private static final int DEDUPE_QUERY_CHUNK = 500;
+    
     @Autowired
     private NewsArticleRepository newsRepository;
     
+    @Autowired
+    private SentimentStatsStore sentimentStatsStore;
+    
+    @Value("${dedupe.bloom.expectedInsertions:100000}")
+    private long bloomExpectedInsertions;
+    
+    @Value("${dedupe.bloom.falsePositiveRate:0.01}")
+    private double bloomFalsePositiveRate;
+    
+    private final Object filterLock = new Object();
+    private volatile ArticleBloomFilter knownArticles = new ArticleBloomFilter(1, 0.01);
+    private volatile ArticleBloomFilter rebuilding;
+    
     public List<NewsArticle> getNewsByCountryAndSentiment(String country, String sentiment) {
         if (sentiment != null && !sentiment.isEmpty()) {
             return newsRepository.findByCountryAndSentiment(country, sentiment);
@@ -25,6 +59,15 @@ public class NewsService {
         }
     }
     
+    // One keyset page of a country's articles, newest first
+    public ArticlePage getNewsPage(String country, String sentiment, String cursor, int limit) {
+        ScrollPosition position = ArticleCursor.toScrollPosition(ArticleCursor.parse(cursor));
+        Window<NewsArticle> window = (sentiment != null && !sentiment.isEmpty())
+                ? newsRepository.findByCountryAndSentimentOrderByPublishedAtDescIdDesc(country, sentiment, position, Limit.of(limit))
+                : newsRepository.findByCountryOrderByPublishedAtDescIdDesc(country, position, Limit.of(limit));
+        return ArticlePage.of(window);
+    }
+    
     public List<String> getAvailableCountries() {
         // Get distinct countries from database
         return newsRepository.findAll().stream()
@@ -34,14 +77,12 @@ public class NewsService {
                 .collect(Collectors.toList());
     }
     
+    // Served from the in-memory aggregates, not the database
     public Map<String, Long> getSentimentCounts(String country) {
-        List<Object[]> results = newsRepository.countSentimentsByCountry(country);
-        
-        return results.stream()
-                .collect(Collectors.toMap(
-                    row -> (String) row[0],  // sentiment
-                    row -> (Long) row[1]     // count
-                ));
+        Map<String, Long> counts = new HashMap<>();
+        sentimentStatsStore.totalsBySentiment(country, null)
+                .forEach((sentiment, totals) -> counts.put(sentiment, totals.count()));
+        return counts;
     }
     
     // Get recent articles (last 24 hours)
@@ -52,20 +93,113 @@ public class NewsService {
     
     // Save articles to database
     public List<NewsArticle> saveArticles(List<NewsArticle> articles) {
-        // Filter out duplicates
-        List<NewsArticle> newArticles = articles.stream()
-                .filter(article -> !newsRepository.existsByUrlAndCountry(article.getUrl(), article.getCountry()))
-                .collect(Collectors.toList());
+        return persistArticles(filterNewArticles(articles));
+    }
+    
+    // Drop articles we already have (and repeats within the batch).
+    // Keys the Bloom filter has never seen are new for sure; only the rest are checked
+    // against the database, with one IN query per country.
+    public List<NewsArticle> filterNewArticles(List<NewsArticle> articles) {
+        return filterNewArticles(articles, knownArticles);
+    }
+    
+    // As above, but every key is checked against the database. For retrying a batch whose insert
+    // hit the unique constraint: the filter said one of its keys was new, so it can't be trusted
+    // for this batch. Keys found stored are added to the filter so it answers right next time.
+    public List<NewsArticle> recheckNewArticles(List<NewsArticle> articles) {
+        return filterNewArticles(articles, null);
+    }
+    
+    private List<NewsArticle> filterNewArticles(List<NewsArticle> articles, ArticleBloomFilter filter) {
+        Map<String, NewsArticle> unique = new LinkedHashMap<>();
+        Map<String, Set<String>> maybeKnownUrls = new HashMap<>();
+        
+        for (NewsArticle article : articles) {
+            if (unique.putIfAbsent(articleKey(article.getUrl(), article.getCountry()), article) == null
+                    && article.getUrl() != null
+                    && (filter == null || filter.mightContain(article.getUrl(), article.getCountry()))) {
+                maybeKnownUrls.computeIfAbsent(article.getCountry(), c -> new HashSet<>()).add(article.getUrl());
+            }
+        }
         
-        return newsRepository.saveAll(newArticles);
+        for (Map.Entry<String, Set<String>> entry : maybeKnownUrls.entrySet()) {
+            String country = entry.getKey();
+            List<String> urls = new ArrayList<>(entry.getValue());
+            for (int i = 0; i < urls.size(); i += DEDUPE_QUERY_CHUNK) {
+                List<String> slice = urls.subList(i, Math.min(i + DEDUPE_QUERY_CHUNK, urls.size()));
+                for (String url : newsRepository.findExistingUrls(country, slice)) {
+                    unique.remove(articleKey(url, country));
+                    if (filter == null) {
+                        rememberArticle(url, country);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(unique.values());
+    }
+    
+    // Save a batch of new articles in one transaction (saveAll's own), then remember their keys.
+    // Keys are added after commit so a concurrent filter rebuild can't miss them.
+    public List<NewsArticle> persistArticles(List<NewsArticle> articles) {
+        List<NewsArticle> saved = newsRepository.saveAll(articles);
+        saved.forEach(article -> {
+            rememberArticle(article.getUrl(), article.getCountry());
+            sentimentStatsStore.add(article);
+        });
+        return saved;
     }
     
     // Clean up old articles
     public void cleanupOldArticles() {
-        LocalDateTime cutoff = LocalDateTime.now().minusHours(24);
-        newsRepository.deleteOldArticles(cutoff);
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(RETENTION_HOURS);
+        // Stats for whole hours before the cutoff are dropped; the cutoff's own hour needs the rows
+        List<Object[]> cutoffHourRows = newsRepository.findStatsRowsPublishedBetween(
+                SentimentStatsStore.bucketStart(cutoff), cutoff);
+        int deleted = newsRepository.deleteOldArticles(cutoff);
+        sentimentStatsStore.purge(cutoff, cutoffHourRows);
+        // Bloom filters can't forget keys, so start over from what's left. Cleanup runs beside
+        // the ingestion cycles, so skip the full key scan when there was nothing to forget.
+        if (deleted > 0) {
+            rebuildArticleFilter();
+        }
     }
-
+    
+    @PostConstruct
+    public void rebuildArticleFilter() {
+        synchronized (filterLock) {
+            ArticleBloomFilter fresh = new ArticleBloomFilter(
+                    Math.max(bloomExpectedInsertions, 2 * newsRepository.count()), bloomFalsePositiveRate);
+            // Inserts committed while we read the table go into both filters
+            rebuilding = fresh;
+            try {
+                List<Object[]> keys = newsRepository.findAllUrlKeys();
+                for (Object[] row : keys) {
+                    fresh.put((String) row[0], (String) row[1]);
+                }
+                knownArticles = fresh;
+                logger.info("Article duplicate filter rebuilt from {} rows ({} bits, {} hashes)",
+                        keys.size(), fresh.bitSize(), fresh.hashCount());
+            } finally {
+                rebuilding = null;
+            }
+        }
+    }
+    
+    // Reads rebuilding before knownArticles: a rebuild sets rebuilding, then knownArticles, then
+    // clears rebuilding, so if we see it cleared we also see the new knownArticles, and if we saw
+    // it unset before the rebuild began, our row was committed before its scan started
+    private void rememberArticle(String url, String country) {
+        ArticleBloomFilter next = rebuilding;
+        knownArticles.put(url, country);
+        if (next != null) {
+            next.put(url, country);
+        }
+    }
+    
+    private static String articleKey(String url, String country) {
+        return url + "|" + country;
+    }
+    
     // Add these methods to NewsService.java
 
     // Get articles with high confidence sentiment
@@ -76,45 +210,52 @@ public class NewsService {
                 .collect(Collectors.toList());
     }
 
-    // Get sentiment statistics with scores
+    // Keyset-paged high-confidence articles, newest first
+    public ArticlePage getHighConfidenceNewsPage(String country, String sentiment, String cursor, int limit) {
+        Window<NewsArticle> window = newsRepository
+                .findByCountryAndSentimentAndSentimentConfidenceGreaterThanOrderByPublishedAtDescIdDesc(
+                        country, sentiment, 0.7, ArticleCursor.toScrollPosition(ArticleCursor.parse(cursor)), Limit.of(limit));
+        return ArticlePage.of(window);
+    }
+
+    // Get sentiment statistics with scores, from the in-memory aggregates
     public Map<String, Object> getDetailedSentimentStats(String country) {
-        List<NewsArticle> articles = newsRepository.findByCountry(country);
+        Map<String, SentimentStatsStore.Totals> totals = sentimentStatsStore.totalsBySentiment(country, null);
         
         Map<String, Object> stats = new HashMap<>();
+        Map<String, Long> counts = new HashMap<>();
+        Map<String, Double> avgScores = new HashMap<>();
+        Map<String, Double> avgConfidence = new HashMap<>();
+        long totalArticles = 0;
         
-        // Count by sentiment
-        Map<String, Long> counts = articles.stream()
-                .collect(Collectors.groupingBy(
-                    NewsArticle::getSentiment,
-                    Collectors.counting()
-                ));
-        
-        // Average scores by sentiment
-        Map<String, Double> avgScores = articles.stream()
-                .filter(a -> a.getSentimentScore() != null)
-                .collect(Collectors.groupingBy(
-                    NewsArticle::getSentiment,
-                    Collectors.averagingDouble(NewsArticle::getSentimentScore)
-                ));
-        
-        // Average confidence by sentiment
-        Map<String, Double> avgConfidence = articles.stream()
-                .filter(a -> a.getSentimentConfidence() != null)
-                .collect(Collectors.groupingBy(
-                    NewsArticle::getSentiment,
-                    Collectors.averagingDouble(NewsArticle::getSentimentConfidence)
-                ));
+        for (Map.Entry<String, SentimentStatsStore.Totals> entry : totals.entrySet()) {
+            SentimentStatsStore.Totals sentimentTotals = entry.getValue();
+            counts.put(entry.getKey(), sentimentTotals.count());
+            if (sentimentTotals.averageScore() != null) {
+                avgScores.put(entry.getKey(), sentimentTotals.averageScore());
+            }
+            if (sentimentTotals.averageConfidence() != null) {
+                avgConfidence.put(entry.getKey(), sentimentTotals.averageConfidence());
+            }
+            totalArticles += sentimentTotals.count();
+        }
         
         stats.put("counts", counts);
         stats.put("averageScores", avgScores);
         stats.put("averageConfidence", avgConfidence);
-        stats.put("totalArticles", articles.size());
+        stats.put("totalArticles", (int) totalArticles);
         
         return stats;
     }
 
     // Save single article to database
 public NewsArticle saveArticle(NewsArticle article) {
-    return newsRepository.save(article);
+    boolean isNew = article.getId() == null;
+    NewsArticle saved = newsRepository.save(article);
+    if (isNew) {
+        rememberArticle(saved.getUrl(), saved.getCountry());
+        sentimentStatsStore.add(saved);
+    }
+    return saved;
 }
 }
\ No newline at end of file
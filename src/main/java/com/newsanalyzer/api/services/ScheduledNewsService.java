@@ -1,7 +1,11 @@
 package com.newsanalyzer.api.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsanalyzer.api.models.ArticleCursor;
+import com.newsanalyzer.api.models.ArticlePage;
+import com.newsanalyzer.api.models.ArticleView;
 import com.newsanalyzer.api.models.NewsArticle;
-import com.newsanalyzer.api.services.SentimentAnalysisService.SentimentResult;
+import com.newsanalyzer.api.services.NewsApiRateLimiter.Priority;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -11,8 +15,9 @@ import org.slf4j.LoggerFactory;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class ScheduledNewsService {
@@ -20,250 +25,146 @@ public class ScheduledNewsService {
     private static final Logger logger = LoggerFactory.getLogger(ScheduledNewsService.class);
 
     @Autowired
-private MockNewsService mockNewsService;
-    
+    private NewsService newsService;
+
     @Autowired
-    private ExternalNewsService externalNewsService;
-    
+    private IngestionPipeline ingestionPipeline;
+
     @Autowired
-    private SentimentAnalysisService sentimentAnalysisService;
-    
+    private SentimentTrendSeries sentimentTrendSeries;
+
     @Autowired
-    private NewsService newsService;
+    private ObjectMapper objectMapper;
 
     @Autowired
-    private AsyncSentimentService asyncSentimentService;
+    private NewsMetrics newsMetrics;
     
-    private final ConcurrentHashMap<String, List<NewsArticle>> newsCache = new ConcurrentHashMap<>();
+    // Immutable per-country snapshots, replaced as a whole map by one atomic swap
+    private final AtomicReference<Map<String, CountryNewsSnapshot>> snapshots = new AtomicReference<>(Map.of());
+    private final AtomicLong snapshotVersions = new AtomicLong();
     private final List<String> supportedCountries = Arrays.asList("us", "gb", "ca", "au", "in", "de", "fr");
     
-    private LocalDateTime lastUpdated = LocalDateTime.now();
+    private volatile LocalDateTime lastUpdated = LocalDateTime.now();
     private final Map<String, Integer> processingStats = new ConcurrentHashMap<>();
     
-@Scheduled(fixedRate = 900000) // Every 15 minutes
-public void fetchNewsForAllCountries() {
-    System.out.println("🔄 Starting scheduled news fetch with MOCK DATA at: " + LocalDateTime.now());
-    
-    // Clean up old articles first
-    newsService.cleanupOldArticles();
-    
-    // Reset processing stats
-    processingStats.clear();
-    
-    // NEW: Use mock data instead of real API
-    try {
-        List<NewsArticle> mockArticles = mockNewsService.getMockNewsForAllCountries();
-        System.out.println("📰 Generated " + mockArticles.size() + " mock articles");
-        
-        // Process each mock article (same as before)
-        for (NewsArticle article : mockArticles) {
-            processIndividualArticle(article);
-        }
-        
-    } catch (Exception e) {
-        logger.error("Error fetching mock news", e);
-        System.out.println("❌ Error generating mock news: " + e.getMessage());
+    // Runs on its own schedule; the per-country refreshes are driven by AdaptiveRefreshScheduler
+    @Scheduled(initialDelayString = "${refresh.cleanupMinutes:15}", fixedDelayString = "${refresh.cleanupMinutes:15}",
+               timeUnit = TimeUnit.MINUTES)
+    public void cleanupOldArticles() {
+        newsService.cleanupOldArticles();
     }
-    
-    lastUpdated = LocalDateTime.now();
-    printProcessingStats();
-    System.out.println("🎉 Mock news fetch completed at: " + lastUpdated);
-}
-
 
-/**
- * Process a single article (replaces the country-based processing)
- */
-private void processIndividualArticle(NewsArticle article) {
-    try {
-        String country = article.getCountry();
-        
-        // Save to database
-        NewsArticle savedArticle = newsService.saveArticle(article);
-        
-        // Update stats
-        processingStats.merge(country + "_fetched", 1, Integer::sum);
-        
-        System.out.println("✅ Processed: " + article.getTitle().substring(0, Math.min(50, article.getTitle().length())) + "...");
-        
-    } catch (Exception e) {
-        logger.error("Error processing article: {}", article.getTitle(), e);
-        System.out.println("❌ Failed to process: " + article.getTitle());
-    }
-}
-    
-    @Scheduled(initialDelay = 5000, fixedRate = Long.MAX_VALUE)
-    public void initialNewsLoad() {
-        System.out.println("🚀 Initial news load starting...");
-        fetchNewsForAllCountries();
-    }
-    
-    private void processCountryNews(String country) {
+    /**
+     * One ingestion cycle over the given countries. Returns the cycle's report, or null if it
+     * failed outright.
+     */
+    public IngestionPipeline.CycleReport refreshCountries(List<String> countries, Priority priority) {
+        logger.debug("Refreshing {} ({})", countries, priority);
+        IngestionPipeline.CycleReport report = null;
         try {
-            long startTime = System.currentTimeMillis();
-            
-            // Fetch news from external API
-            List<NewsArticle> articles = externalNewsService.fetchNewsByCountry(country);
-            
-            if (articles.isEmpty()) {
-                System.out.println("⚠️ No articles fetched for " + country.toUpperCase());
-                return;
-            }
-            
-            // Filter recent articles
-            List<NewsArticle> recentArticles = articles.stream()
-                    .filter(this::isRecentArticle)
-                    .collect(Collectors.toList());
-            
-            // Save articles to database immediately (without sentiment)
-            // This ensures we don't lose data if sentiment processing fails
-            List<NewsArticle> savedArticles = saveArticlesWithoutSentiment(recentArticles);
-            
-            // Update cache immediately with basic data
-            updateCacheForCountry(country);
-            
-            // Process sentiment asynchronously (non-blocking)
-            if (!savedArticles.isEmpty()) {
-                asyncSentimentService.processArticlesSentimentAsync(savedArticles, country)
-                    .thenRun(() -> {
-                        // Update cache again after sentiment processing is complete
-                        updateCacheForCountry(country);
-                        System.out.println("🧠 Sentiment processing completed for " + country.toUpperCase());
-                    })
-                    .exceptionally(throwable -> {
-                        System.err.println("❌ Async sentiment processing failed for " + country + ": " + throwable.getMessage());
-                        return null;
-                    });
-            }
-            
-            long processingTime = System.currentTimeMillis() - startTime;
-            
-            // Update processing stats
-            processingStats.put(country + "_fetched", articles.size());
-            processingStats.put(country + "_saved", savedArticles.size());
-            processingStats.put(country + "_time", (int) processingTime);
-            
-            System.out.println("⚡ " + country.toUpperCase() + ": " + 
-                            "Fetched=" + articles.size() + 
-                            ", Saved=" + savedArticles.size() + 
-                            ", Time=" + processingTime + "ms (sentiment processing async)");
-            
-            Thread.sleep(1000);
-            
+            // fetch -> dedupe -> score -> persist (-> trend series) -> cache refresh
+            report = ingestionPipeline.runCycle(countries, priority,
+                    sentimentTrendSeries::record, this::updateCacheForCountry);
+            recordProcessingStats(report);
+            logProcessingStats(countries, report);
         } catch (Exception e) {
-            System.err.println("❌ Error processing news for " + country + ": " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error running news ingestion cycle for {}", countries, e);
         }
-    }
 
-    // Add these helper methods:
-    private List<NewsArticle> saveArticlesWithoutSentiment(List<NewsArticle> articles) {
-        // Set default sentiment values for immediate saving
-        articles.forEach(article -> {
-            if (article.getSentiment() == null) {
-                article.setSentimentData("PROCESSING", 0.0, 0.0);
-            }
-        });
-        
-        return newsService.saveArticles(articles);
+        lastUpdated = LocalDateTime.now();
+        return report;
     }
 
     private void updateCacheForCountry(String country) {
         try {
+            // Versioned before the read: a refresh that read later rows always carries the higher
+            // version, so an overlapping older read can't replace its snapshot
+            long version = snapshotVersions.incrementAndGet();
             List<NewsArticle> allCountryArticles = newsService.getRecentNews(country);
-            newsCache.put(country, new CopyOnWriteArrayList<>(allCountryArticles));
+            CountryNewsSnapshot snapshot = CountryNewsSnapshot.build(
+                    country, version, allCountryArticles, objectMapper);
+            snapshots.updateAndGet(current -> {
+                CountryNewsSnapshot existing = current.get(country);
+                if (existing != null && existing.getVersion() > snapshot.getVersion()) {
+                    return current; // A newer refresh of this country already won
+                }
+                Map<String, CountryNewsSnapshot> next = new HashMap<>(current);
+                next.put(country, snapshot);
+                return Map.copyOf(next);
+            });
         } catch (Exception e) {
-            System.err.println("Error updating cache for " + country + ": " + e.getMessage());
+            logger.error("Error updating cache for {}", country, e);
         }
     }
-
-    private List<NewsArticle> processSentimentBatch(List<NewsArticle> articles) {
-        try {
-            // Extract titles for batch sentiment analysis
-            List<String> titles = articles.stream()
-                    .map(NewsArticle::getTitle)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-            
-            // Batch analyze sentiment
-            Map<String, SentimentResult> sentimentResults = sentimentAnalysisService.analyzeBatch(titles);
-            
-            // Apply sentiment results to articles
-            return articles.stream()
-                    .map(article -> applySentimentToArticle(article, sentimentResults))
-                    .collect(Collectors.toList());
-                    
-        } catch (Exception e) {
-            System.err.println("Error in batch sentiment processing: " + e.getMessage());
-            // Fallback to individual processing
-            return articles.stream()
-                    .map(this::processSentimentIndividual)
-                    .collect(Collectors.toList());
+    
+    private void recordProcessingStats(IngestionPipeline.CycleReport report) {
+        // Countries refresh on their own schedules, so each keeps its latest numbers
+        report.fetchedByCountry().forEach((country, fetched) -> {
+            processingStats.put(country + "_fetched", fetched);
+            processingStats.put(country + "_saved", report.savedByCountry().getOrDefault(country, 0));
+        });
+        for (IngestionPipeline.StageTiming stage : report.stages()) {
+            processingStats.put("stage_" + stage.stage() + "_ms", (int) stage.busyMillis());
         }
+        processingStats.put("cycle_ms", (int) report.wallMillis());
     }
     
-    private NewsArticle applySentimentToArticle(NewsArticle article, Map<String, SentimentResult> sentimentResults) {
-        if (article.getTitle() != null && sentimentResults.containsKey(article.getTitle())) {
-            SentimentResult result = sentimentResults.get(article.getTitle());
-            article.setSentimentData(result.getSentiment(), result.getScore(), result.getConfidence());
-        } else {
-            // Fallback for articles without titles
-            article.setSentimentData("NEUTRAL", 0.0, 0.5);
+    // One line per cycle; the per-country and per-stage breakdown only at DEBUG
+    private void logProcessingStats(List<String> countries, IngestionPipeline.CycleReport report) {
+        long failures = report.stages().stream().mapToLong(IngestionPipeline.StageTiming::failures).sum();
+        logger.info("Ingestion cycle {}: fetched={}, new={}, failures={}, time={}ms",
+                countries, report.totalFetched(), report.totalSaved(), failures, report.wallMillis());
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        for (String country : countries) {
+            int fetched = report.fetchedByCountry().getOrDefault(country, 0);
+            if (fetched > 0) {
+                logger.debug("  {}: fetched={}, new={}", country, fetched,
+                        report.savedByCountry().getOrDefault(country, 0));
+            }
+        }
+        for (IngestionPipeline.StageTiming stage : report.stages()) {
+            logger.debug("  stage {}: {} articles in {} chunks, busy={}ms, failures={}",
+                    stage.stage(), stage.articles(), stage.chunks(), stage.busyMillis(), stage.failures());
         }
-        return article;
     }
     
-    private NewsArticle processSentimentIndividual(NewsArticle article) {
-        try {
-            String textToAnalyze = buildAnalysisText(article);
-            SentimentResult result = sentimentAnalysisService.analyzeSentiment(textToAnalyze);
-            article.setSentimentData(result.getSentiment(), result.getScore(), result.getConfidence());
-        } catch (Exception e) {
-            System.err.println("Error processing sentiment for article: " + e.getMessage());
-            article.setSentimentData("NEUTRAL", 0.0, 0.5);
-        }
-        return article;
+    // Public methods for accessing cached data
+    public CountryNewsSnapshot getSnapshot(String country) {
+        CountryNewsSnapshot snapshot = snapshots.get().get(country);
+        newsMetrics.snapshotLookup(country, snapshot != null);
+        return snapshot != null ? snapshot : CountryNewsSnapshot.empty(country);
     }
     
-    private String buildAnalysisText(NewsArticle article) {
-        StringBuilder text = new StringBuilder();
-        
-        if (article.getTitle() != null) {
-            text.append(article.getTitle());
-        }
-        
-        if (article.getDescription() != null && !article.getDescription().isEmpty()) {
-            text.append(" ").append(article.getDescription());
-        }
-        
-        return text.toString().trim();
+    public List<ArticleView> getCachedNews(String country) {
+        return getSnapshot(country).articles();
     }
     
-    private boolean isRecentArticle(NewsArticle article) {
-        if (article.getPublishedAt() == null) return true;
-        return article.getPublishedAt().isAfter(LocalDateTime.now().minusHours(24));
+    public List<ArticleView> getCachedNews(String country, String sentiment) {
+        return getSnapshot(country).articles(sentiment);
     }
     
-    private void printProcessingStats() {
-        System.out.println("\n📊 Processing Statistics:");
-        for (String country : supportedCountries) {
-            int fetched = processingStats.getOrDefault(country + "_fetched", 0);
-            int saved = processingStats.getOrDefault(country + "_saved", 0);
-            int time = processingStats.getOrDefault(country + "_time", 0);
-            
-            if (fetched > 0) {
-                System.out.println("   " + country.toUpperCase() + 
-                                 ": Fetched=" + fetched + 
-                                 ", New=" + saved + 
-                                 ", Time=" + time + "ms");
+    // One page of the cached feed, starting just after the cursor
+    public ArticlePage getCachedNewsPage(String country, String sentiment, String cursor, int limit) {
+        List<ArticleView> articles = getCachedNews(country, sentiment);
+        ArticleCursor after = ArticleCursor.parse(cursor);
+        
+        // Binary search for the first article past the cursor
+        int from = 0;
+        if (after != null) {
+            int to = articles.size();
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (ArticleCursor.of(articles.get(mid)).compareTo(after) <= 0) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
             }
         }
-        System.out.println();
-    }
-    
-    // Public methods for accessing cached data
-    public List<NewsArticle> getCachedNews(String country) {
-        return newsCache.getOrDefault(country, List.of());
+        int end = Math.min(articles.size(), from + limit);
+        return ArticlePage.of(List.copyOf(articles.subList(from, end)), end < articles.size());
     }
     
     public List<String> getSupportedCountries() {
@@ -278,7 +179,7 @@ private void processIndividualArticle(NewsArticle article) {
         return new HashMap<>(processingStats);
     }
     
-    public ConcurrentHashMap<String, List<NewsArticle>> getAllCachedNews() {
-        return newsCache;
+    public Map<String, CountryNewsSnapshot> getAllCachedNews() {
+        return snapshots.get();
     }
 }
\ No newline at end of file
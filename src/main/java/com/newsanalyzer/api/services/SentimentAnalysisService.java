@@ -1,171 +1,201 @@
 package com.newsanalyzer.api.services;
 
-import org.apache.commons.text.StringEscapeUtils;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.models.SentimentLabel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
 
 @Service
 public class SentimentAnalysisService {
     
-    // Enhanced word lists with weights
-    private final Map<String, Double> positiveWords = new ConcurrentHashMap<>();
-    private final Map<String, Double> negativeWords = new ConcurrentHashMap<>();
-    private final Set<String> intensifiers = new HashSet<>();
-    private final Set<String> negators = new HashSet<>();
+    private static final Logger logger = LoggerFactory.getLogger(SentimentAnalysisService.class);
     
-    // Text preprocessing patterns
-    private final Pattern urlPattern = Pattern.compile("https?://\\S+");
-    private final Pattern mentionPattern = Pattern.compile("@\\w+");
-    private final Pattern hashtagPattern = Pattern.compile("#\\w+");
-    private final Pattern punctuationPattern = Pattern.compile("[^\\w\\s]");
+    private static final String SENTIMENT_CACHE = "sentimentCache";
+    
+    // Below this many cache misses a batch is scored on the calling thread; also the chunk size
+    // for parallel scoring
+    private static final int PARALLEL_BATCH_THRESHOLD = 64;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    @Qualifier("sentimentForkJoinPool")
+    private ForkJoinPool sentimentForkJoinPool;
+    
+    @Autowired
+    private NewsMetrics newsMetrics;
+    
+    // Word lists are compiled into an immutable lexicon once at startup
+    private SentimentLexicon lexicon;
+    private SentimentScorer scorer;
     
     @PostConstruct
     public void initializeLexicons() {
-        loadPositiveWords();
-        loadNegativeWords();
-        loadIntensifiers();
-        loadNegators();
-        System.out.println("✅ Sentiment analysis lexicons loaded successfully");
+        SentimentLexicon.Builder builder = SentimentLexicon.builder();
+        loadPositiveWords(builder);
+        loadNegativeWords(builder);
+        loadIntensifiers(builder);
+        loadNegators(builder);
+        lexicon = builder.build();
+        scorer = new SentimentScorer(lexicon);
+        logger.info("Sentiment analysis lexicons loaded ({} words)", lexicon.size());
     }
     
-    @Cacheable("sentimentCache")
+    @Cacheable(value = SENTIMENT_CACHE, keyGenerator = "sentimentKeyGenerator")
     public SentimentResult analyzeSentiment(String text) {
-        if (text == null || text.trim().isEmpty()) {
-            return new SentimentResult("NEUTRAL", 0.0, 0.5);
-        }
+        // Tokenize and score in a single pass over the text
+        return newsMetrics.timeSentiment(() -> scorer.score(text));
+    }
+    
+    // Text we score for an article: title plus description
+    public static String buildAnalysisText(NewsArticle article) {
+        StringBuilder text = new StringBuilder();
         
-        // Preprocess text
-        String cleanText = preprocessText(text);
-        List<String> tokens = tokenize(cleanText);
+        if (article.getTitle() != null && !article.getTitle().trim().isEmpty()) {
+            text.append(article.getTitle());
+        }
         
-        // Calculate sentiment scores
-        double positiveScore = calculatePositiveScore(tokens);
-        double negativeScore = calculateNegativeScore(tokens);
-        double neutralScore = 1.0 - Math.abs(positiveScore - negativeScore);
+        if (article.getDescription() != null && !article.getDescription().trim().isEmpty()) {
+            if (text.length() > 0) text.append(" ");
+            text.append(article.getDescription());
+        }
         
-        // Determine overall sentiment
-        String sentiment = determineSentiment(positiveScore, negativeScore);
-        double confidence = calculateConfidence(positiveScore, negativeScore, neutralScore);
-        double score = positiveScore - negativeScore; // Range: -1 to +1
+        return text.toString().trim();
+    }
+    
+    // Batch processing: results line up with the input, duplicates included
+    public List<SentimentResult> analyzeBatch(List<String> texts) {
+        SentimentBatch batch = analyzeBatchColumnar(texts);
         
-        return new SentimentResult(sentiment, score, confidence);
+        List<SentimentResult> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            results.add(batch.result(i));
+        }
+        return results;
     }
     
-    // Batch processing for better performance
-    public Map<String, SentimentResult> analyzeBatch(List<String> texts) {
-        return texts.stream()
-                .parallel() // Process in parallel for better performance
-                .collect(Collectors.toConcurrentMap(
-                    text -> text,
-                    this::analyzeSentiment
-                ));
+    // Columnar batch processing for bulk scoring: no result object per text
+    public SentimentBatch analyzeBatchColumnar(List<String> texts) {
+        return newsMetrics.timeSentimentBatch(() -> scoreBatch(texts));
     }
     
-    private String preprocessText(String text) {
-        // Remove URLs, mentions, hashtags
-        String cleaned = urlPattern.matcher(text).replaceAll(" ");
-        cleaned = mentionPattern.matcher(cleaned).replaceAll(" ");
-        cleaned = hashtagPattern.matcher(cleaned).replaceAll(" ");
+    private SentimentBatch scoreBatch(List<String> texts) {
+        int size = texts.size();
         
-        // Unescape HTML entities
-        cleaned = StringEscapeUtils.unescapeHtml4(cleaned);
+        // Dedupe on the cache key, so repeated texts are looked up and scored once
+        Map<Long, Integer> uniqueIndexes = new HashMap<>();
+        List<Long> uniqueKeys = new ArrayList<>();
+        List<String> uniqueTexts = new ArrayList<>();
+        int[] positions = new int[size];
         
-        // Convert to lowercase
-        cleaned = cleaned.toLowerCase();
+        for (int i = 0; i < size; i++) {
+            String text = texts.get(i);
+            Long key = SentimentScorer.cacheKey(text);
+            Integer index = uniqueIndexes.putIfAbsent(key, uniqueKeys.size());
+            if (index == null) {
+                index = uniqueKeys.size();
+                uniqueKeys.add(key);
+                uniqueTexts.add(text);
+            }
+            positions[i] = index;
+        }
         
-        // Remove extra whitespace
-        cleaned = cleaned.replaceAll("\\s+", " ").trim();
+        // One bulk lookup for everything we have already scored
+        SentimentBatch unique = new SentimentBatch(uniqueKeys.size());
+        Map<Object, Object> cached = getCachedResults(uniqueKeys);
+        List<Integer> misses = new ArrayList<>();
+        List<String> missTexts = new ArrayList<>();
+        for (int u = 0; u < unique.size(); u++) {
+            SentimentResult result = (SentimentResult) cached.get(uniqueKeys.get(u));
+            if (result != null) {
+                unique.set(u, result);
+            } else {
+                misses.add(u);
+                missTexts.add(uniqueTexts.get(u));
+            }
+        }
         
-        return cleaned;
-    }
-    
-    private List<String> tokenize(String text) {
-        return Arrays.stream(text.split("\\s+"))
-                .map(word -> punctuationPattern.matcher(word).replaceAll(""))
-                .filter(word -> !word.isEmpty())
-                .filter(word -> word.length() > 1) // Remove single characters
-                .collect(Collectors.toList());
+        SentimentBatch scored = scoreMisses(missTexts);
+        for (int m = 0; m < misses.size(); m++) {
+            unique.copy(misses.get(m), scored, m);
+        }
+        cacheResults(misses, uniqueKeys, scored);
+        
+        SentimentBatch batch = new SentimentBatch(size);
+        for (int i = 0; i < size; i++) {
+            batch.copy(i, unique, positions[i]);
+        }
+        return batch;
     }
     
-    private double calculatePositiveScore(List<String> tokens) {
-        double score = 0.0;
-        
-        for (int i = 0; i < tokens.size(); i++) {
-            String token = tokens.get(i);
-            
-            if (positiveWords.containsKey(token)) {
-                double wordScore = positiveWords.get(token);
-                
-                // Check for intensifiers (very good, extremely positive)
-                if (i > 0 && intensifiers.contains(tokens.get(i - 1))) {
-                    wordScore *= 1.5;
-                }
-                
-                // Check for negators (not good, don't like)
-                if (i > 0 && negators.contains(tokens.get(i - 1))) {
-                    wordScore *= -0.5;
-                }
-                
-                score += wordScore;
-            }
+    // Scores in parallel chunks on our own pool once there are enough texts
+    private SentimentBatch scoreMisses(List<String> texts) {
+        SentimentBatch scored = new SentimentBatch(texts.size());
+        if (texts.size() < PARALLEL_BATCH_THRESHOLD) {
+            scorer.scoreInto(texts, 0, texts.size(), scored);
+            return scored;
         }
         
-        return Math.min(score / tokens.size(), 1.0); // Normalize to 0-1
+        int chunks = (texts.size() + PARALLEL_BATCH_THRESHOLD - 1) / PARALLEL_BATCH_THRESHOLD;
+        sentimentForkJoinPool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int from = chunk * PARALLEL_BATCH_THRESHOLD;
+            scorer.scoreInto(texts, from, Math.min(from + PARALLEL_BATCH_THRESHOLD, texts.size()), scored);
+        })).join();
+        return scored;
     }
     
-    private double calculateNegativeScore(List<String> tokens) {
-        double score = 0.0;
+    private Map<Object, Object> getCachedResults(List<Long> keys) {
+        Cache cache = cacheManager.getCache(SENTIMENT_CACHE);
+        if (cache instanceof CaffeineCache caffeineCache) {
+            return caffeineCache.getNativeCache().getAllPresent(keys);
+        }
         
-        for (int i = 0; i < tokens.size(); i++) {
-            String token = tokens.get(i);
-            
-            if (negativeWords.containsKey(token)) {
-                double wordScore = negativeWords.get(token);
-                
-                // Check for intensifiers
-                if (i > 0 && intensifiers.contains(tokens.get(i - 1))) {
-                    wordScore *= 1.5;
+        Map<Object, Object> cached = new HashMap<>();
+        if (cache != null) {
+            for (Long key : keys) {
+                SentimentResult result = cache.get(key, SentimentResult.class);
+                if (result != null) {
+                    cached.put(key, result);
                 }
-                
-                // Check for negators (not bad = positive)
-                if (i > 0 && negators.contains(tokens.get(i - 1))) {
-                    wordScore *= -0.5;
-                }
-                
-                score += wordScore;
             }
         }
-        
-        return Math.min(score / tokens.size(), 1.0);
+        return cached;
     }
     
-    private String determineSentiment(double positiveScore, double negativeScore) {
-        double threshold = 0.1; // Minimum difference for non-neutral
+    private void cacheResults(List<Integer> misses, List<Long> keys, SentimentBatch scored) {
+        Cache cache = cacheManager.getCache(SENTIMENT_CACHE);
+        if (cache == null) {
+            return;
+        }
         
-        if (positiveScore - negativeScore > threshold) {
-            return "POSITIVE";
-        } else if (negativeScore - positiveScore > threshold) {
-            return "NEGATIVE";
+        Map<Object, Object> entries = new HashMap<>();
+        for (int m = 0; m < misses.size(); m++) {
+            entries.put(keys.get(misses.get(m)), scored.result(m));
+        }
+        if (cache instanceof CaffeineCache caffeineCache) {
+            caffeineCache.getNativeCache().putAll(entries);
         } else {
-            return "NEUTRAL";
+            entries.forEach(cache::put);
         }
     }
     
-    private double calculateConfidence(double positiveScore, double negativeScore, double neutralScore) {
-        double maxScore = Math.max(positiveScore, Math.max(negativeScore, neutralScore));
-        double totalScore = positiveScore + negativeScore + neutralScore;
-        
-        return totalScore > 0 ? maxScore / totalScore : 0.5;
-    }
-    
     // Load enhanced word lexicons
-    private void loadPositiveWords() {
+    private void loadPositiveWords(SentimentLexicon.Builder builder) {
         // High impact positive words (weight 1.0)
         String[] highPositive = {
             "excellent", "outstanding", "amazing", "fantastic", "wonderful", "brilliant",
@@ -183,12 +213,12 @@ public class SentimentAnalysisService {
             "okay", "fine", "decent", "adequate", "acceptable", "fair", "reasonable"
         };
         
-        loadWordsWithWeight(positiveWords, highPositive, 1.0);
-        loadWordsWithWeight(positiveWords, mediumPositive, 0.7);
-        loadWordsWithWeight(positiveWords, lowPositive, 0.4);
+        loadWordsWithWeight(builder::positive, highPositive, 1.0);
+        loadWordsWithWeight(builder::positive, mediumPositive, 0.7);
+        loadWordsWithWeight(builder::positive, lowPositive, 0.4);
     }
     
-    private void loadNegativeWords() {
+    private void loadNegativeWords(SentimentLexicon.Builder builder) {
         // High impact negative words (weight 1.0)
         String[] highNegative = {
             "terrible", "awful", "horrible", "disgusting", "hate", "despise",
@@ -206,52 +236,59 @@ public class SentimentAnalysisService {
             "meh", "bland", "boring", "dull", "mediocre", "subpar", "lacking"
         };
         
-        loadWordsWithWeight(negativeWords, highNegative, 1.0);
-        loadWordsWithWeight(negativeWords, mediumNegative, 0.7);
-        loadWordsWithWeight(negativeWords, lowNegative, 0.4);
+        loadWordsWithWeight(builder::negative, highNegative, 1.0);
+        loadWordsWithWeight(builder::negative, mediumNegative, 0.7);
+        loadWordsWithWeight(builder::negative, lowNegative, 0.4);
     }
     
-    private void loadIntensifiers() {
-        intensifiers.addAll(Arrays.asList(
+    private void loadIntensifiers(SentimentLexicon.Builder builder) {
+        Arrays.asList(
             "very", "extremely", "incredibly", "absolutely", "completely", "totally",
             "really", "quite", "highly", "tremendously", "enormously", "exceptionally"
-        ));
+        ).forEach(builder::intensifier);
     }
     
-    private void loadNegators() {
-        negators.addAll(Arrays.asList(
+    private void loadNegators(SentimentLexicon.Builder builder) {
+        Arrays.asList(
             "not", "no", "never", "none", "nothing", "nobody", "nowhere",
             "don't", "doesn't", "didn't", "won't", "wouldn't", "can't", "couldn't"
-        ));
+        ).forEach(builder::negator);
     }
     
-    private void loadWordsWithWeight(Map<String, Double> wordMap, String[] words, double weight) {
+    private void loadWordsWithWeight(BiConsumer<String, Double> lexicon, String[] words, double weight) {
         for (String word : words) {
-            wordMap.put(word, weight);
+            lexicon.accept(word, weight);
         }
     }
     
+    // Compiled lexicon, for callers that need raw lookups
+    public SentimentLexicon getLexicon() {
+        return lexicon;
+    }
+    
     // Inner class for structured sentiment results
     public static class SentimentResult {
-        private final String sentiment;
+        private final SentimentLabel label;
         private final double score;
         private final double confidence;
         
-        public SentimentResult(String sentiment, double score, double confidence) {
-            this.sentiment = sentiment;
+        public SentimentResult(SentimentLabel label, double score, double confidence) {
+            this.label = label;
             this.score = score;
             this.confidence = confidence;
         }
         
         // Getters
-        public String getSentiment() { return sentiment; }
+        public String getSentiment() { return label.name(); }
+        @JsonIgnore
+        public SentimentLabel getLabel() { return label; }
         public double getScore() { return score; }
         public double getConfidence() { return confidence; }
         
         @Override
         public String toString() {
             return String.format("SentimentResult{sentiment='%s', score=%.3f, confidence=%.3f}", 
-                               sentiment, score, confidence);
+                               label, score, confidence);
         }
     }
 }
\ No newline at end of file
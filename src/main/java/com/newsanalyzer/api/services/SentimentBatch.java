@@ -0,0 +1,88 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.models.SentimentLabel;
+import com.newsanalyzer.api.services.SentimentAnalysisService.SentimentResult;
+
+/**
+ * Columnar sentiment results for bulk scoring: one primitive array per field instead of one
+ * {@link SentimentResult} per text. Batch APIs fill it in place, and aggregating over it is a
+ * plain array walk.
+ */
+public final class SentimentBatch {
+
+    private static final int LABEL_COUNT = SentimentLabel.values().length;
+
+    private final byte[] labels;
+    private final double[] scores;
+    private final double[] confidences;
+
+    public SentimentBatch(int size) {
+        this.labels = new byte[size];
+        this.scores = new double[size];
+        this.confidences = new double[size];
+    }
+
+    public int size() {
+        return labels.length;
+    }
+
+    public void set(int index, SentimentLabel label, double score, double confidence) {
+        labels[index] = (byte) label.ordinal();
+        scores[index] = score;
+        confidences[index] = confidence;
+    }
+
+    public void set(int index, SentimentResult result) {
+        set(index, result.getLabel(), result.getScore(), result.getConfidence());
+    }
+
+    public void copy(int index, SentimentBatch source, int sourceIndex) {
+        labels[index] = source.labels[sourceIndex];
+        scores[index] = source.scores[sourceIndex];
+        confidences[index] = source.confidences[sourceIndex];
+    }
+
+    public SentimentLabel label(int index) {
+        return SentimentLabel.fromOrdinal(labels[index]);
+    }
+
+    public double score(int index) {
+        return scores[index];
+    }
+
+    public double confidence(int index) {
+        return confidences[index];
+    }
+
+    // Boxes a single entry, for callers that still want the object form
+    public SentimentResult result(int index) {
+        return new SentimentResult(label(index), scores[index], confidences[index]);
+    }
+
+    // Counts indexed by SentimentLabel ordinal
+    public long[] countsByLabel() {
+        long[] counts = new long[LABEL_COUNT];
+        for (byte label : labels) {
+            counts[label]++;
+        }
+        return counts;
+    }
+
+    // Score sums indexed by SentimentLabel ordinal
+    public double[] scoreSumsByLabel() {
+        double[] sums = new double[LABEL_COUNT];
+        for (int i = 0; i < labels.length; i++) {
+            sums[labels[i]] += scores[i];
+        }
+        return sums;
+    }
+
+    // Confidence sums indexed by SentimentLabel ordinal
+    public double[] confidenceSumsByLabel() {
+        double[] sums = new double[LABEL_COUNT];
+        for (int i = 0; i < labels.length; i++) {
+            sums[labels[i]] += confidences[i];
+        }
+        return sums;
+    }
+}
@@ -0,0 +1,255 @@
+package com.newsanalyzer.api.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable sentiment lexicon compiled into a double-array trie.
+ * <p>
+ * Every word maps to a packed int code holding its classes (positive, negative, intensifier,
+ * negator) and the index of its positive/negative weight. Lookups walk {@code base}/{@code check}
+ * arrays one char at a time, so they work over any char slice without materializing a String,
+ * and the scanner can advance the walk while it reads a token. Words must be normalized tokens:
+ * lowercase ASCII letters, digits and '_'.
+ */
+public final class SentimentLexicon {
+
+    // Class flags, low 4 bits of a code
+    public static final int POSITIVE = 1;
+    public static final int NEGATIVE = 1 << 1;
+    public static final int INTENSIFIER = 1 << 2;
+    public static final int NEGATOR = 1 << 3;
+
+    // Weight indexes into the weights table, 8 bits each
+    private static final int POSITIVE_WEIGHT_SHIFT = 4;
+    private static final int NEGATIVE_WEIGHT_SHIFT = 12;
+    private static final int WEIGHT_MASK = 0xFF;
+
+    // '0'-'9' -> 1..10, '_' -> 11, 'a'-'z' -> 12..37; 0 means "not in the alphabet"
+    private static final int ALPHABET_SIZE = 38;
+    private static final byte[] LABELS = new byte[128];
+
+    static {
+        for (char c = '0'; c <= '9'; c++) {
+            LABELS[c] = (byte) (c - '0' + 1);
+        }
+        LABELS['_'] = 11;
+        for (char c = 'a'; c <= 'z'; c++) {
+            LABELS[c] = (byte) (c - 'a' + 12);
+        }
+    }
+
+    private static final int ROOT = 0;
+    private static final int FREE = -1;
+    private static final int NO_STATE = -1;
+
+    private final int[] base;
+    private final int[] check;
+    private final int[] codes;
+    private final double[] weights;
+    private final int size;
+
+    private SentimentLexicon(int[] base, int[] check, int[] codes, double[] weights, int size) {
+        this.base = base;
+        this.check = check;
+        this.codes = codes;
+        this.weights = weights;
+        this.size = size;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Incremental walk: start at root(), feed chars with next(), read code() at the end
+    public int root() {
+        return ROOT;
+    }
+
+    // Returns -1 once the walk has left the trie; -1 is absorbing
+    public int next(int state, char c) {
+        if (state < 0 || c >= 128 || LABELS[c] == 0) {
+            return NO_STATE;
+        }
+        int target = base[state] + LABELS[c];
+        return target < check.length && check[target] == state ? target : NO_STATE;
+    }
+
+    public int code(int state) {
+        return state < 0 ? 0 : codes[state];
+    }
+
+    public int lookup(CharSequence text, int from, int to) {
+        int state = ROOT;
+        for (int i = from; i < to && state >= 0; i++) {
+            state = next(state, text.charAt(i));
+        }
+        return code(state);
+    }
+
+    public int lookup(char[] text, int from, int to) {
+        int state = ROOT;
+        for (int i = from; i < to && state >= 0; i++) {
+            state = next(state, text[i]);
+        }
+        return code(state);
+    }
+
+    public int lookup(CharSequence word) {
+        return lookup(word, 0, word.length());
+    }
+
+    public static boolean is(int code, int flag) {
+        return (code & flag) != 0;
+    }
+
+    public double positiveWeight(int code) {
+        return weights[(code >>> POSITIVE_WEIGHT_SHIFT) & WEIGHT_MASK];
+    }
+
+    public double negativeWeight(int code) {
+        return weights[(code >>> NEGATIVE_WEIGHT_SHIFT) & WEIGHT_MASK];
+    }
+
+    // Number of words in the lexicon
+    public int size() {
+        return size;
+    }
+
+    public static final class Builder {
+
+        private final Map<String, Integer> entries = new TreeMap<>();
+        private final List<Double> weights = new ArrayList<>(List.of(0.0));
+
+        private Builder() {
+        }
+
+        public Builder positive(String word, double weight) {
+            return add(word, POSITIVE, weightIndex(weight) << POSITIVE_WEIGHT_SHIFT,
+                    WEIGHT_MASK << POSITIVE_WEIGHT_SHIFT);
+        }
+
+        public Builder negative(String word, double weight) {
+            return add(word, NEGATIVE, weightIndex(weight) << NEGATIVE_WEIGHT_SHIFT,
+                    WEIGHT_MASK << NEGATIVE_WEIGHT_SHIFT);
+        }
+
+        public Builder intensifier(String word) {
+            return add(word, INTENSIFIER, 0, 0);
+        }
+
+        public Builder negator(String word) {
+            return add(word, NEGATOR, 0, 0);
+        }
+
+        // Words containing anything a normalized token can't (e.g. "don't") could never match,
+        // so they are left out of the trie
+        private Builder add(String word, int flag, int weightBits, int weightMask) {
+            if (word.isEmpty() || !word.chars().allMatch(c -> c < 128 && LABELS[c] != 0)) {
+                return this;
+            }
+            entries.merge(word, flag | weightBits, (old, added) -> (old & ~weightMask) | added);
+            return this;
+        }
+
+        private int weightIndex(double weight) {
+            int index = weights.indexOf(weight);
+            if (index < 0) {
+                index = weights.size();
+                if (index > WEIGHT_MASK) {
+                    throw new IllegalStateException("Too many distinct lexicon weights (max " + WEIGHT_MASK + ")");
+                }
+                weights.add(weight);
+            }
+            return index;
+        }
+
+        public SentimentLexicon build() {
+            String[] words = entries.keySet().toArray(new String[0]); // Sorted, prefixes first
+            int[] wordCodes = entries.values().stream().mapToInt(Integer::intValue).toArray();
+
+            int capacity = Math.max(ALPHABET_SIZE * 2, words.length * 4);
+            int[] base = new int[capacity];
+            int[] check = new int[capacity];
+            int[] codes = new int[capacity];
+            Arrays.fill(check, FREE);
+            check[ROOT] = ROOT - 2; // Occupied, but nobody's child
+
+            int used = ROOT + 1;
+            int firstFree = ROOT + 1;
+            int[] labels = new int[ALPHABET_SIZE];
+            int[] starts = new int[ALPHABET_SIZE + 1];
+
+            // Each queued node: {state, first word, end word (exclusive), depth}
+            ArrayDeque<int[]> queue = new ArrayDeque<>();
+            queue.add(new int[] {ROOT, 0, words.length, 0});
+
+            while (!queue.isEmpty()) {
+                int[] node = queue.poll();
+                int state = node[0];
+                int from = node[1];
+                int to = node[2];
+                int depth = node[3];
+
+                if (from < to && words[from].length() == depth) {
+                    codes[state] = wordCodes[from++];
+                }
+
+                // Group the remaining words by their char at this depth
+                int children = 0;
+                for (int i = from; i < to; i++) {
+                    int label = LABELS[words[i].charAt(depth)];
+                    if (children == 0 || labels[children - 1] != label) {
+                        labels[children] = label;
+                        starts[children++] = i;
+                    }
+                }
+                if (children == 0) {
+                    continue;
+                }
+                starts[children] = to;
+
+                // First base where every child slot is free
+                int offset = Math.max(1, firstFree - labels[0]);
+                while (true) {
+                    int last = offset + labels[children - 1];
+                    if (last >= check.length) {
+                        int grown = Math.max(check.length * 2, last + 1);
+                        base = Arrays.copyOf(base, grown);
+                        codes = Arrays.copyOf(codes, grown);
+                        int oldLength = check.length;
+                        check = Arrays.copyOf(check, grown);
+                        Arrays.fill(check, oldLength, grown, FREE);
+                    }
+                    boolean fits = true;
+                    for (int c = 0; c < children && fits; c++) {
+                        fits = check[offset + labels[c]] == FREE;
+                    }
+                    if (fits) {
+                        break;
+                    }
+                    offset++;
+                }
+
+                base[state] = offset;
+                for (int c = 0; c < children; c++) {
+                    int child = offset + labels[c];
+                    check[child] = state;
+                    used = Math.max(used, child + 1);
+                    queue.add(new int[] {child, starts[c], starts[c + 1], depth + 1});
+                }
+                while (firstFree < check.length && check[firstFree] != FREE) {
+                    firstFree++;
+                }
+            }
+
+            double[] weightTable = weights.stream().mapToDouble(Double::doubleValue).toArray();
+            return new SentimentLexicon(Arrays.copyOf(base, used), Arrays.copyOf(check, used),
+                    Arrays.copyOf(codes, used), weightTable, words.length);
+        }
+    }
+}
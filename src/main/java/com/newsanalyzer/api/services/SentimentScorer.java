@@ -0,0 +1,292 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.models.SentimentLabel;
+import com.newsanalyzer.api.services.SentimentAnalysisService.SentimentResult;
+import org.apache.commons.text.translate.EntityArrays;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Single-pass sentiment scorer.
+ * <p>
+ * Produces the same {@link SentimentResult} as the original regex pipeline (strip URLs, mentions
+ * and hashtags, unescape HTML, lowercase, split on whitespace, strip punctuation, drop one-char
+ * tokens, then score positive and negative words) but walks the text exactly once, char by char.
+ * Each token is looked up by walking the {@link SentimentLexicon} trie as its chars are read, so no
+ * per-token String is ever built.
+ */
+public final class SentimentScorer {
+
+    private static final double NEUTRAL_THRESHOLD = 0.1; // Minimum difference for non-neutral
+    private static final double INTENSIFIER_MULTIPLIER = 1.5;
+    private static final double NEGATOR_MULTIPLIER = -0.5;
+
+    // Named entities understood by StringEscapeUtils.unescapeHtml4. Every one of them decodes to a
+    // character the punctuation strip removes again, so the scanner just skips them in place.
+    // Numeric entities never survive: the hashtag rule has already eaten their "#123" part.
+    private static final Set<String> HTML4_ENTITIES = new HashSet<>();
+    private static final int MAX_ENTITY_LENGTH;
+
+    static {
+        int maxLength = 0;
+        for (Map<CharSequence, CharSequence> entities : List.of(EntityArrays.BASIC_UNESCAPE,
+                EntityArrays.ISO8859_1_UNESCAPE, EntityArrays.HTML40_EXTENDED_UNESCAPE)) {
+            for (CharSequence entity : entities.keySet()) {
+                HTML4_ENTITIES.add(entity.toString());
+                maxLength = Math.max(maxLength, entity.length());
+            }
+        }
+        MAX_ENTITY_LENGTH = maxLength;
+    }
+
+    private final SentimentLexicon lexicon;
+
+    public SentimentScorer(SentimentLexicon lexicon) {
+        this.lexicon = lexicon;
+    }
+
+    public SentimentResult score(String text) {
+        if (isBlank(text)) {
+            return new SentimentResult(SentimentLabel.NEUTRAL, 0.0, 0.5);
+        }
+        Accumulator tokens = new Accumulator();
+        scan(text, tokens);
+        tokens.finish();
+        return new SentimentResult(tokens.label, tokens.score, tokens.confidence);
+    }
+
+    // Scores texts[from, to) into the same positions of the batch, reusing one accumulator
+    public void scoreInto(List<String> texts, int from, int to, SentimentBatch batch) {
+        Accumulator tokens = new Accumulator();
+        for (int i = from; i < to; i++) {
+            String text = texts.get(i);
+            if (isBlank(text)) {
+                batch.set(i, SentimentLabel.NEUTRAL, 0.0, 0.5);
+                continue;
+            }
+            tokens.reset();
+            scan(text, tokens);
+            tokens.finish();
+            batch.set(i, tokens.label, tokens.score, tokens.confidence);
+        }
+    }
+
+    private static boolean isBlank(String text) {
+        return text == null || text.trim().isEmpty();
+    }
+
+    /**
+     * 64-bit hash of the raw text (FNV-1a over its chars, then murmur3's fmix64), the sentiment
+     * cache key: one cheap pass and no reference to the text. Blank text, which always scores
+     * neutral, gets 0.
+     */
+    public static long cacheKey(String text) {
+        if (isBlank(text)) {
+            return 0L;
+        }
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            h = (h ^ text.charAt(i)) * 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0L ? 1L : h;
+    }
+
+    // Feeds the normalized chars of each token to the sink, calling endToken() at every boundary
+    private static void scan(String text, TokenSink tokens) {
+        int length = text.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = text.charAt(i);
+            int entityLength;
+
+            if (c == 'h' && isUrlAt(text, i)) {
+                // URLs run up to the next whitespace and act as a token separator
+                tokens.endToken();
+                i = skipNonWhitespace(text, i);
+            } else if ((c == '@' || c == '#') && i + 1 < length
+                    && isWordChar(text.charAt(i + 1)) && !isUrlAt(text, i + 1)) {
+                // Mentions and hashtags also act as a token separator
+                tokens.endToken();
+                i = skipWordRun(text, i + 1);
+            } else if (c == '&' && (entityLength = entityLengthAt(text, i)) > 0) {
+                i += entityLength;
+            } else if (isWhitespace(c)) {
+                tokens.endToken();
+                i++;
+            } else {
+                char lower = Character.toLowerCase(c);
+                if (isWordChar(lower)) {
+                    tokens.append(lower);
+                }
+                i++;
+            }
+        }
+        tokens.endToken();
+    }
+
+    private static SentimentLabel determineSentiment(double positiveScore, double negativeScore) {
+        if (positiveScore - negativeScore > NEUTRAL_THRESHOLD) {
+            return SentimentLabel.POSITIVE;
+        } else if (negativeScore - positiveScore > NEUTRAL_THRESHOLD) {
+            return SentimentLabel.NEGATIVE;
+        } else {
+            return SentimentLabel.NEUTRAL;
+        }
+    }
+
+    private static double calculateConfidence(double positiveScore, double negativeScore, double neutralScore) {
+        double maxScore = Math.max(positiveScore, Math.max(negativeScore, neutralScore));
+        double totalScore = positiveScore + negativeScore + neutralScore;
+
+        return totalScore > 0 ? maxScore / totalScore : 0.5;
+    }
+
+    // Same as the "https?://\S+" pattern: the scheme must be followed by at least one non-space
+    private static boolean isUrlAt(String text, int index) {
+        int schemeEnd;
+        if (text.startsWith("http://", index)) {
+            schemeEnd = index + 7;
+        } else if (text.startsWith("https://", index)) {
+            schemeEnd = index + 8;
+        } else {
+            return false;
+        }
+        return schemeEnd < text.length() && !isWhitespace(text.charAt(schemeEnd));
+    }
+
+    private static int skipNonWhitespace(String text, int index) {
+        while (index < text.length() && !isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    // A mention or hashtag ends at the first non-word char, or where a URL starts inside it
+    // (URLs were removed first in the original pipeline, cutting the word short)
+    private static int skipWordRun(String text, int index) {
+        while (index < text.length()) {
+            char c = text.charAt(index);
+            if (!isWordChar(c) || (c == 'h' && isUrlAt(text, index))) {
+                break;
+            }
+            index++;
+        }
+        return index;
+    }
+
+    private static int entityLengthAt(String text, int index) {
+        int limit = Math.min(text.length(), index + MAX_ENTITY_LENGTH);
+        for (int end = index + 1; end < limit; end++) {
+            char c = text.charAt(end);
+            if (c == ';') {
+                return HTML4_ENTITIES.contains(text.substring(index, end + 1)) ? end + 1 - index : 0;
+            }
+            if (!isAsciiLetterOrDigit(c)) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    // Java's default "\s": space, \t, \n, \x0B, \f, \r
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    // Java's default "\w": [a-zA-Z_0-9]
+    private static boolean isWordChar(char c) {
+        return isAsciiLetterOrDigit(c) || c == '_';
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private interface TokenSink {
+        void append(char c);
+
+        void endToken();
+    }
+
+    // Scoring state for one text: the lexicon walk for the current token plus running totals
+    private final class Accumulator implements TokenSink {
+        private int state = lexicon.root();
+        private int length;
+
+        private int count;
+        private double positive;
+        private double negative;
+        private boolean previousIntensifier;
+        private boolean previousNegator;
+
+        // Set by finish()
+        private SentimentLabel label;
+        private double score;
+        private double confidence;
+
+        void reset() {
+            state = lexicon.root();
+            length = 0;
+            count = 0;
+            positive = 0.0;
+            negative = 0.0;
+            previousIntensifier = false;
+            previousNegator = false;
+        }
+
+        void finish() {
+            double positiveScore = Math.min(positive / count, 1.0); // Normalize to 0-1
+            double negativeScore = Math.min(negative / count, 1.0);
+            double neutralScore = 1.0 - Math.abs(positiveScore - negativeScore);
+
+            label = determineSentiment(positiveScore, negativeScore);
+            confidence = calculateConfidence(positiveScore, negativeScore, neutralScore);
+            score = positiveScore - negativeScore; // Range: -1 to +1
+        }
+
+        @Override
+        public void append(char c) {
+            state = lexicon.next(state, c);
+            length++;
+        }
+
+        @Override
+        public void endToken() {
+            if (length > 1) { // Single characters are not tokens
+                count++;
+                int code = lexicon.code(state);
+
+                if (SentimentLexicon.is(code, SentimentLexicon.POSITIVE)) {
+                    positive += adjust(lexicon.positiveWeight(code));
+                }
+                if (SentimentLexicon.is(code, SentimentLexicon.NEGATIVE)) {
+                    negative += adjust(lexicon.negativeWeight(code));
+                }
+
+                previousIntensifier = SentimentLexicon.is(code, SentimentLexicon.INTENSIFIER);
+                previousNegator = SentimentLexicon.is(code, SentimentLexicon.NEGATOR);
+            }
+            state = lexicon.root();
+            length = 0;
+        }
+
+        // Intensifiers boost (very good), negators flip and dampen (not good, not bad)
+        private double adjust(double weight) {
+            double wordScore = weight;
+            if (previousIntensifier) {
+                wordScore *= INTENSIFIER_MULTIPLIER;
+            }
+            if (previousNegator) {
+                wordScore *= NEGATOR_MULTIPLIER;
+            }
+            return wordScore;
+        }
+    }
+}
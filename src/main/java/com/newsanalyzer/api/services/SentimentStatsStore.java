@@ -0,0 +1,169 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.repositories.NewsArticleRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running sentiment totals per country x sentiment x hour of publication: article count plus
+ * sums of scores and confidences. Kept in step with the table on every save, rescore and purge,
+ * so the stats endpoints read a few hundred adders instead of every article.
+ * <p>
+ * Updates are lock-free; readers see totals that may be mid-update by a concurrent write.
+ */
+@Service
+public class SentimentStatsStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SentimentStatsStore.class);
+
+    // Articles saved without a sentiment
+    public static final String UNKNOWN = "UNKNOWN";
+
+    // Never purged: cleanup only deletes by publishedAt, so articles without one stay
+    private static final long UNDATED_BUCKET = Long.MAX_VALUE;
+
+    // country -> hour bucket -> sentiment -> totals
+    private final ConcurrentHashMap<String, ConcurrentSkipListMap<Long, ConcurrentHashMap<String, Cell>>> buckets =
+            new ConcurrentHashMap<>();
+
+    @Autowired
+    private NewsArticleRepository newsRepository;
+
+    @PostConstruct
+    public void warmUp() {
+        List<Object[]> rows = newsRepository.findAllStatsRows();
+        buckets.clear();
+        rows.forEach(row -> apply(row, 1));
+        logger.info("Sentiment stats warmed from {} rows", rows.size());
+    }
+
+    public void add(NewsArticle article) {
+        apply(article.getCountry(), article.getSentiment(), article.getPublishedAt(),
+                article.getSentimentScore(), article.getSentimentConfidence(), 1);
+    }
+
+    public void remove(NewsArticle article) {
+        apply(article.getCountry(), article.getSentiment(), article.getPublishedAt(),
+                article.getSentimentScore(), article.getSentimentConfidence(), -1);
+    }
+
+    // An article was rescored from the old values to its current ones
+    public void replace(NewsArticle article, String oldSentiment, Double oldScore, Double oldConfidence) {
+        apply(article.getCountry(), oldSentiment, article.getPublishedAt(), oldScore, oldConfidence, -1);
+        add(article);
+    }
+
+    /**
+     * Forgets everything published before {@code cutoff}. Hours entirely before it are dropped
+     * whole; {@code cutoffHourRows} are the deleted rows from the cutoff's own hour
+     * (see {@link #bucketStart}), which are subtracted one by one.
+     */
+    public void purge(LocalDateTime cutoff, List<Object[]> cutoffHourRows) {
+        long cutoffBucket = bucketOf(cutoff);
+        for (ConcurrentSkipListMap<Long, ConcurrentHashMap<String, Cell>> country : buckets.values()) {
+            country.headMap(cutoffBucket).clear();
+        }
+        cutoffHourRows.forEach(row -> apply(row, -1));
+    }
+
+    // Start of the hour bucket holding this time
+    public static LocalDateTime bucketStart(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    /**
+     * Totals per sentiment for a country, over articles published at or after {@code from}'s hour
+     * ({@code null} for all of them). Sentiments with no articles are left out.
+     */
+    public Map<String, Totals> totalsBySentiment(String country, LocalDateTime from) {
+        Map<String, Totals> totals = new TreeMap<>();
+        ConcurrentSkipListMap<Long, ConcurrentHashMap<String, Cell>> countryBuckets = buckets.get(country);
+        if (countryBuckets == null) {
+            return totals;
+        }
+        NavigableMap<Long, ConcurrentHashMap<String, Cell>> range =
+                from == null ? countryBuckets : countryBuckets.tailMap(bucketOf(from), true);
+        for (ConcurrentHashMap<String, Cell> bucket : range.values()) {
+            bucket.forEach((sentiment, cell) -> totals.merge(sentiment, cell.totals(), Totals::plus));
+        }
+        totals.values().removeIf(t -> t.count() <= 0);
+        return totals;
+    }
+
+    private void apply(Object[] row, int sign) {
+        apply((String) row[0], (String) row[1], (LocalDateTime) row[2], (Double) row[3], (Double) row[4], sign);
+    }
+
+    private void apply(String country, String sentiment, LocalDateTime publishedAt,
+                       Double score, Double confidence, int sign) {
+        if (country == null) {
+            return;
+        }
+        long bucket = publishedAt == null ? UNDATED_BUCKET : bucketOf(publishedAt);
+        Cell cell = buckets
+                .computeIfAbsent(country, c -> new ConcurrentSkipListMap<>())
+                .computeIfAbsent(bucket, b -> new ConcurrentHashMap<>())
+                .computeIfAbsent(sentiment == null ? UNKNOWN : sentiment, s -> new Cell());
+
+        cell.count.add(sign);
+        // Texts without a scorable token score NaN; one of those would poison the sum for the
+        // whole hour, so they only count towards the article count, like a missing score
+        if (score != null && Double.isFinite(score)) {
+            cell.scoreCount.add(sign);
+            cell.scoreSum.add(sign * score);
+        }
+        if (confidence != null && Double.isFinite(confidence)) {
+            cell.confidenceCount.add(sign);
+            cell.confidenceSum.add(sign * confidence);
+        }
+    }
+
+    private static long bucketOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 3600);
+    }
+
+    private static final class Cell {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder scoreCount = new LongAdder();
+        private final DoubleAdder scoreSum = new DoubleAdder();
+        private final LongAdder confidenceCount = new LongAdder();
+        private final DoubleAdder confidenceSum = new DoubleAdder();
+
+        Totals totals() {
+            return new Totals(count.sum(), scoreCount.sum(), scoreSum.sum(), confidenceCount.sum(), confidenceSum.sum());
+        }
+    }
+
+    // Score and confidence are only summed over articles that have finite ones, like the averages they feed
+    public record Totals(long count, long scoreCount, double scoreSum, long confidenceCount, double confidenceSum) {
+
+        public Totals plus(Totals other) {
+            return new Totals(count + other.count, scoreCount + other.scoreCount, scoreSum + other.scoreSum,
+                    confidenceCount + other.confidenceCount, confidenceSum + other.confidenceSum);
+        }
+
+        public Double averageScore() {
+            return scoreCount > 0 ? scoreSum / scoreCount : null;
+        }
+
+        public Double averageConfidence() {
+            return confidenceCount > 0 ? confidenceSum / confidenceCount : null;
+        }
+    }
+}
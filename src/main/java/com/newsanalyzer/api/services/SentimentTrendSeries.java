@@ -0,0 +1,191 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.models.SentimentLabel;
+import com.newsanalyzer.api.repositories.NewsArticleRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-country sentiment time series over the retention window ({@link NewsService#RETENTION_HOURS}),
+ * in fixed-width buckets by publication time.
+ * <p>
+ * Each country is a ring of primitive arrays with one slot per bucket. A slot remembers which
+ * bucket it holds, so buckets older than the window are simply overwritten or ignored: memory is
+ * constant and nothing ever has to be purged.
+ */
+@Service
+public class SentimentTrendSeries {
+
+    private static final SentimentLabel[] LABELS = SentimentLabel.values();
+
+    @Value("${trends.bucketMinutes:5}")
+    private int bucketMinutes = 5;
+
+    @Autowired
+    private NewsArticleRepository newsRepository;
+
+    // Buckets are counted in UTC, like bucketOf/startOf
+    private Clock clock = Clock.systemUTC();
+    private long bucketSeconds;
+    private int slots;
+    private final ConcurrentHashMap<String, Ring> rings = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initialize() {
+        bucketSeconds = Math.max(1, bucketMinutes) * 60L;
+        slots = (int) (NewsService.RETENTION_HOURS * 3600L / bucketSeconds);
+        rings.clear();
+        if (newsRepository != null) {
+            LocalDateTime now = LocalDateTime.now(clock);
+            newsRepository.findStatsRowsPublishedBetween(now.minusHours(NewsService.RETENTION_HOURS), now.plusYears(1))
+                    .forEach(row -> record((String) row[0], (String) row[1], (LocalDateTime) row[2], (Double) row[3]));
+        }
+    }
+
+    // For tests
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    public void record(List<NewsArticle> articles) {
+        for (NewsArticle article : articles) {
+            record(article.getCountry(), article.getSentiment(), article.getPublishedAt(), article.getSentimentScore());
+        }
+    }
+
+    private void record(String country, String sentiment, LocalDateTime publishedAt, Double score) {
+        if (country == null || sentiment == null || publishedAt == null) {
+            return;
+        }
+        SentimentLabel label;
+        try {
+            label = SentimentLabel.valueOf(sentiment);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        // Articles stamped slightly in the future count towards the current bucket
+        long bucket = Math.min(bucketOf(publishedAt), bucketOf(LocalDateTime.now(clock)));
+        rings.computeIfAbsent(country, c -> new Ring(slots)).add(bucket, label, score);
+    }
+
+    /**
+     * Buckets covering the last {@code window}, oldest first, each {@code step} wide. Both must be
+     * whole multiples of the bucket width, and the window can't exceed the retention window.
+     */
+    public List<TrendPoint> trend(String country, Duration window, Duration step) {
+        long stepBuckets = step.getSeconds() / bucketSeconds;
+        long windowBuckets = window.getSeconds() / bucketSeconds;
+        if (stepBuckets < 1 || step.getSeconds() % bucketSeconds != 0) {
+            throw new IllegalArgumentException("step must be a multiple of " + bucketMinutes + " minutes");
+        }
+        if (windowBuckets < 1 || window.getSeconds() % step.getSeconds() != 0 || windowBuckets > slots) {
+            throw new IllegalArgumentException("window must be a multiple of step and at most "
+                    + NewsService.RETENTION_HOURS + " hours");
+        }
+
+        long current = bucketOf(LocalDateTime.now(clock));
+        long first = current - windowBuckets + 1;
+        Ring ring = rings.get(country);
+        List<TrendPoint> points = new ArrayList<>();
+        long[] counts = new long[LABELS.length];
+        double[] sums = new double[2]; // score sum, scored count
+
+        for (long start = first; start <= current; start += stepBuckets) {
+            Arrays.fill(counts, 0);
+            sums[0] = 0;
+            sums[1] = 0;
+            if (ring != null) {
+                ring.sum(start, start + stepBuckets, counts, sums);
+            }
+            points.add(TrendPoint.of(startOf(start), counts, sums[0], (long) sums[1]));
+        }
+        return points;
+    }
+
+    private long bucketOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+    }
+
+    private LocalDateTime startOf(long bucket) {
+        return LocalDateTime.ofEpochSecond(bucket * bucketSeconds, 0, ZoneOffset.UTC);
+    }
+
+    // One country's ring: slot = bucket mod slots, holding counts per label and the score total
+    private static final class Ring {
+        private final long[] bucketIds;
+        private final long[] counts;
+        private final double[] scoreSums;
+        private final long[] scoredCounts;
+
+        Ring(int slots) {
+            bucketIds = new long[slots];
+            Arrays.fill(bucketIds, Long.MIN_VALUE);
+            counts = new long[slots * LABELS.length];
+            scoreSums = new double[slots];
+            scoredCounts = new long[slots];
+        }
+
+        synchronized void add(long bucket, SentimentLabel label, Double score) {
+            int slot = (int) Math.floorMod(bucket, (long) bucketIds.length);
+            if (bucketIds[slot] != bucket) {
+                if (bucketIds[slot] > bucket) {
+                    return; // Older than the window the ring still holds
+                }
+                // The slot rolls over to the newer bucket
+                bucketIds[slot] = bucket;
+                Arrays.fill(counts, slot * LABELS.length, (slot + 1) * LABELS.length, 0);
+                scoreSums[slot] = 0;
+                scoredCounts[slot] = 0;
+            }
+            counts[slot * LABELS.length + label.ordinal()]++;
+            // NaN scores (texts with no scorable token) would poison the bucket's mean for good,
+            // so they count like a missing score
+            if (score != null && Double.isFinite(score)) {
+                scoreSums[slot] += score;
+                scoredCounts[slot]++;
+            }
+        }
+
+        // Adds buckets [from, to) into the accumulators, skipping slots that hold other buckets
+        synchronized void sum(long from, long to, long[] labelCounts, double[] sums) {
+            for (long bucket = from; bucket < to; bucket++) {
+                int slot = (int) Math.floorMod(bucket, (long) bucketIds.length);
+                if (bucketIds[slot] != bucket) {
+                    continue;
+                }
+                for (int label = 0; label < LABELS.length; label++) {
+                    labelCounts[label] += counts[slot * LABELS.length + label];
+                }
+                sums[0] += scoreSums[slot];
+                sums[1] += scoredCounts[slot];
+            }
+        }
+    }
+
+    public record TrendPoint(LocalDateTime start, Map<String, Long> counts, long total, Double meanScore) {
+
+        static TrendPoint of(LocalDateTime start, long[] labelCounts, double scoreSum, long scored) {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            long total = 0;
+            for (SentimentLabel label : LABELS) {
+                counts.put(label.name(), labelCounts[label.ordinal()]);
+                total += labelCounts[label.ordinal()];
+            }
+            return new TrendPoint(start, counts, total, scored > 0 ? scoreSum / scored : null);
+        }
+    }
+}
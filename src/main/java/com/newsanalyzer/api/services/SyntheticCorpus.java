@@ -0,0 +1,295 @@
+package com.newsanalyzer.api.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.models.SentimentLabel;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic synthetic news corpus built from {@link MockNewsService}'s headlines, description
+ * templates and sources, for load tests at production volumes.
+ * <p>
+ * Every article is a pure function of (seed, country, index): it draws from its own
+ * {@link SplittableRandom} seeded from those three, so there is no shared generator to contend on,
+ * streams can be split across any number of threads, and the same seed always gives the same
+ * corpus no matter how it was partitioned.
+ */
+public final class SyntheticCorpus {
+
+    // Duplicates repeat one of this many preceding articles of the same country
+    private static final int DUPLICATE_WINDOW = 1_000;
+    // Articles generated per parallel block when writing to a file
+    private static final int WRITE_BLOCK = 8_192;
+    private static final SentimentLabel[] LABELS = {SentimentLabel.POSITIVE, SentimentLabel.NEGATIVE, SentimentLabel.NEUTRAL};
+
+    private final List<String> countries;
+    private final double[] cumulativeMix;
+    private final int minSentences;
+    private final int maxSentences;
+    private final double duplicateRate;
+    private final long windowNanos;
+    private final double publishSkew;
+    private final LocalDateTime until;
+    private final Map<SentimentLabel, List<String>> headlines = new EnumMap<>(SentimentLabel.class);
+    private final Map<String, String> slugs = new HashMap<>();
+    private final long[] countrySeeds;
+
+    private SyntheticCorpus(Builder builder) {
+        this.countries = List.copyOf(builder.countries);
+        this.minSentences = builder.minSentences;
+        this.maxSentences = builder.maxSentences;
+        this.duplicateRate = builder.duplicateRate;
+        this.windowNanos = builder.publishWindow.toNanos();
+        this.publishSkew = builder.publishSkew;
+        this.until = builder.until != null ? builder.until : LocalDateTime.now();
+
+        double total = builder.mix[0] + builder.mix[1] + builder.mix[2];
+        cumulativeMix = new double[] {builder.mix[0] / total, (builder.mix[0] + builder.mix[1]) / total};
+
+        for (SentimentLabel label : LABELS) {
+            List<String> texts = builder.mockNewsService.getHeadlines(label);
+            headlines.put(label, texts);
+            // Slugs once per headline rather than a regex per article
+            texts.forEach(text -> slugs.put(text, slug(text)));
+        }
+
+        countrySeeds = new long[countries.size()];
+        for (int i = 0; i < countrySeeds.length; i++) {
+            countrySeeds[i] = mix(builder.seed ^ mix(countries.get(i).hashCode()));
+        }
+    }
+
+    public static Builder builder(MockNewsService mockNewsService) {
+        return new Builder(mockNewsService);
+    }
+
+    public List<String> getCountries() {
+        return countries;
+    }
+
+    // Article number index of the corpus, countries taking turns
+    public NewsArticle article(long index) {
+        int n = countries.size();
+        return article((int) (index % n), index / n);
+    }
+
+    public NewsArticle article(String country, long index) {
+        int slot = countries.indexOf(country);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Country not in corpus: " + country);
+        }
+        return article(slot, index);
+    }
+
+    // Sequential, ordered; call parallel() on it to generate on every core
+    public Stream<NewsArticle> stream(long count) {
+        return LongStream.range(0, count).mapToObj(this::article);
+    }
+
+    // Articles [from, from + count) of one country
+    public Stream<NewsArticle> stream(String country, long from, long count) {
+        return stream(country, from, count, until);
+    }
+
+    // As above, published within the window before the given time instead of the corpus's own
+    public Stream<NewsArticle> stream(String country, long from, long count, LocalDateTime until) {
+        int slot = countries.indexOf(country);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Country not in corpus: " + country);
+        }
+        return LongStream.range(from, from + count).mapToObj(index -> article(slot, index, until));
+    }
+
+    /**
+     * Writes the first {@code count} articles as JSON lines, generating each block on
+     * {@code threads} threads and writing it in order. Returns the number of lines written.
+     */
+    public long writeJsonLines(Writer writer, long count, int threads) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        try (JsonGenerator json = new JsonFactory().createGenerator(writer)) {
+            json.setRootValueSeparator(null);
+            for (long from = 0; from < count; from += WRITE_BLOCK) {
+                long to = Math.min(count, from + WRITE_BLOCK);
+                long blockStart = from;
+                List<NewsArticle> block = pool.submit(() -> LongStream.range(blockStart, to).parallel()
+                        .mapToObj(this::article)
+                        .toList()).get();
+                for (NewsArticle article : block) {
+                    json.writeStartObject();
+                    json.writeStringField("country", article.getCountry());
+                    json.writeStringField("source", article.getSource());
+                    json.writeStringField("title", article.getTitle());
+                    json.writeStringField("description", article.getDescription());
+                    json.writeStringField("url", article.getUrl());
+                    json.writeStringField("publishedAt", article.getPublishedAt().toString());
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                }
+            }
+            return count;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating the corpus", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Corpus generation failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private NewsArticle article(int slot, long index) {
+        return article(slot, index, until);
+    }
+
+    private NewsArticle article(int slot, long index, LocalDateTime until) {
+        SplittableRandom random = random(slot, index);
+        // A duplicate is an earlier article served again, as feeds do across pages and refreshes
+        while (index > 0 && duplicateRate > 0 && random.nextDouble() < duplicateRate) {
+            index -= 1 + random.nextLong(Math.min(index, DUPLICATE_WINDOW));
+            // Its first draw, in the loop condition, is that article's own duplicate draw
+            random = random(slot, index);
+        }
+
+        String country = countries.get(slot);
+        List<String> texts = headlines.get(pickLabel(random.nextDouble()));
+        String headline = texts.get(random.nextInt(texts.size()));
+        String source = MockNewsService.getSourceName(country);
+
+        StringBuilder description = new StringBuilder(MockNewsService.describe(headline, random.nextInt()));
+        // Extra sentences from headlines of the same sentiment; min of two uniforms skews short
+        int spread = maxSentences - minSentences + 1;
+        int sentences = minSentences + (int) (spread * Math.min(random.nextDouble(), random.nextDouble()));
+        for (int i = 0; i < sentences; i++) {
+            description.append(' ').append(texts.get(random.nextInt(texts.size()))).append('.');
+        }
+
+        // Offsets of window * u^skew: skew > 1 crowds articles toward the newest end
+        long ageNanos = (long) (windowNanos * Math.pow(random.nextDouble(), publishSkew));
+
+        NewsArticle article = new NewsArticle();
+        article.setTitle(random.nextBoolean() ? headline : headline + " - " + source);
+        article.setDescription(description.toString());
+        article.setUrl("https://" + MockNewsService.getCountryDomain(country) + "/news/" + slugs.get(headline)
+                + "-" + index);
+        article.setCountry(country);
+        article.setSource(source);
+        article.setPublishedAt(until.minusNanos(ageNanos));
+        return article;
+    }
+
+    private SplittableRandom random(int slot, long index) {
+        return new SplittableRandom(mix(countrySeeds[slot] + index * 0x9E3779B97F4A7C15L));
+    }
+
+    private SentimentLabel pickLabel(double draw) {
+        return draw < cumulativeMix[0] ? LABELS[0] : draw < cumulativeMix[1] ? LABELS[1] : LABELS[2];
+    }
+
+    private static String slug(String headline) {
+        String slug = headline.toLowerCase()
+                .replaceAll("[^a-z0-9\\s]", "")
+                .replaceAll("\\s+", "-");
+        return slug.substring(0, Math.min(50, slug.length()));
+    }
+
+    // Stafford's variant 13 of the MurmurHash3 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static final class Builder {
+        private final MockNewsService mockNewsService;
+        private long seed = 42;
+        private List<String> countries;
+        // Positive, negative, neutral; the mock service's realistic skew to bad news
+        private double[] mix = {0.25, 0.50, 0.25};
+        private int minSentences = 0;
+        private int maxSentences = 3;
+        private double duplicateRate = 0;
+        private Duration publishWindow = Duration.ofHours(6);
+        private double publishSkew = 1;
+        private LocalDateTime until;
+
+        private Builder(MockNewsService mockNewsService) {
+            this.mockNewsService = mockNewsService;
+            this.countries = mockNewsService.getSupportedCountries();
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder countries(List<String> countries) {
+            if (countries.isEmpty()) {
+                throw new IllegalArgumentException("At least one country is needed");
+            }
+            this.countries = new ArrayList<>(countries);
+            return this;
+        }
+
+        // Relative weights of positive, negative and neutral headlines
+        public Builder sentimentMix(double positive, double negative, double neutral) {
+            if (positive < 0 || negative < 0 || neutral < 0 || positive + negative + neutral <= 0) {
+                throw new IllegalArgumentException("Sentiment weights must be non-negative and not all zero");
+            }
+            this.mix = new double[] {positive, negative, neutral};
+            return this;
+        }
+
+        // Extra sentences appended to each description, skewed toward the minimum
+        public Builder descriptionSentences(int min, int max) {
+            if (min < 0 || max < min) {
+                throw new IllegalArgumentException("Need 0 <= min <= max");
+            }
+            this.minSentences = min;
+            this.maxSentences = max;
+            return this;
+        }
+
+        // Fraction of articles that repeat a recent article of the same country
+        public Builder duplicateRate(double duplicateRate) {
+            if (duplicateRate < 0 || duplicateRate >= 1) {
+                throw new IllegalArgumentException("Duplicate rate must be in [0, 1)");
+            }
+            this.duplicateRate = duplicateRate;
+            return this;
+        }
+
+        /**
+         * Articles are published within {@code window} before {@code until} (default: when the
+         * corpus is built; fix it for a corpus that is the same on every run). A skew of 1 spreads
+         * them evenly, higher values crowd them toward {@code until}.
+         */
+        public Builder publishTimes(Duration window, double skew, LocalDateTime until) {
+            if (window.isNegative() || skew <= 0) {
+                throw new IllegalArgumentException("Need a non-negative window and a positive skew");
+            }
+            this.publishWindow = window;
+            this.publishSkew = skew;
+            this.until = until;
+            return this;
+        }
+
+        public SyntheticCorpus build() {
+            return new SyntheticCorpus(this);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.newsanalyzer.api.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Writes the synthetic corpus to {@code synthetic.writeTo} as JSON lines once the application
+ * has started, e.g. to feed an external load tool:
+ * {@code ./mvnw spring-boot:run -Dspring-boot.run.arguments=--synthetic.writeTo=corpus.jsonl}
+ */
+@Component
+@ConditionalOnProperty("synthetic.writeTo")
+public class SyntheticCorpusWriter implements ApplicationRunner {
+
+    @Autowired
+    private SyntheticNewsService syntheticNewsService;
+
+    @Value("${synthetic.writeTo}")
+    private Path file;
+
+    @Value("${synthetic.writeCount:1000000}")
+    private long count;
+
+    @Value("${synthetic.writeThreads:0}")
+    private int threads;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        syntheticNewsService.writeCorpus(file, count,
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    }
+}
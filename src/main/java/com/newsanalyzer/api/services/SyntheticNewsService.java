@@ -0,0 +1,103 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.models.NewsArticle;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feeds the ingestion pipeline from a {@link SyntheticCorpus} (ingestion.source=synthetic): each
+ * fetch for a country hands out the next {@code synthetic.articlesPerFetch} articles of that
+ * country's stream, published within the window before the fetch, so repeated cycles keep
+ * finding new, recent articles plus the configured share of repeats.
+ */
+@Service
+public class SyntheticNewsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticNewsService.class);
+
+    @Autowired
+    private MockNewsService mockNewsService;
+
+    @Value("${synthetic.seed:42}")
+    private long seed;
+
+    @Value("${synthetic.articlesPerFetch:50}")
+    private int articlesPerFetch;
+
+    @Value("${synthetic.duplicateRate:0.05}")
+    private double duplicateRate;
+
+    // Relative weights of positive, negative and neutral headlines
+    @Value("${synthetic.sentimentMix:25,50,25}")
+    private double[] sentimentMix;
+
+    @Value("${synthetic.maxDescriptionSentences:3}")
+    private int maxDescriptionSentences;
+
+    // Publish times span this window before each fetch; skew > 1 crowds them toward the newest
+    @Value("${synthetic.publishWindowHours:6}")
+    private long publishWindowHours;
+
+    @Value("${synthetic.publishSkew:1.0}")
+    private double publishSkew;
+
+    private SyntheticCorpus corpus;
+    private final Map<String, AtomicLong> cursors = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initialize() {
+        if (sentimentMix.length != 3) {
+            throw new IllegalStateException("synthetic.sentimentMix needs three weights: positive,negative,neutral");
+        }
+        corpus = SyntheticCorpus.builder(mockNewsService)
+                .seed(seed)
+                .sentimentMix(sentimentMix[0], sentimentMix[1], sentimentMix[2])
+                .descriptionSentences(0, maxDescriptionSentences)
+                .duplicateRate(duplicateRate)
+                .publishTimes(Duration.ofHours(publishWindowHours), publishSkew, null)
+                .build();
+    }
+
+    public SyntheticCorpus getCorpus() {
+        return corpus;
+    }
+
+    // The next page of a country's stream, dated relative to now so long runs stay within retention
+    public List<NewsArticle> getArticles(String country) {
+        if (!corpus.getCountries().contains(country)) {
+            return List.of();
+        }
+        long from = cursors.computeIfAbsent(country, c -> new AtomicLong()).getAndAdd(articlesPerFetch);
+        return corpus.stream(country, from, articlesPerFetch, LocalDateTime.now()).toList();
+    }
+
+    /**
+     * Writes the first {@code count} articles of the corpus (all countries, interleaved) to a
+     * JSON-lines file, generating on {@code threads} threads.
+     */
+    public long writeCorpus(Path file, long count, int threads) throws IOException {
+        long start = System.nanoTime();
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            long written = corpus.writeJsonLines(writer, count, threads);
+            logger.info("Wrote {} synthetic articles to {} in {}ms", written, file,
+                    (System.nanoTime() - start) / 1_000_000);
+            return written;
+        }
+    }
+}
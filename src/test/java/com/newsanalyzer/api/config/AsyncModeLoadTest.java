@@ -0,0 +1,165 @@
+package com.newsanalyzer.api.config;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bursts of async calls against both execution modes' executors, as the request threads would
+ * submit them: mvn test -Pbenchmark -Dtest=AsyncModeLoadTest
+ * <p>
+ * Each burst mixes I/O-bound jobs (a 20ms wait, like a DB round trip or fetch) on the news
+ * executor with CPU-bound jobs (a fixed amount of hashing, roughly scoring a text) on the
+ * sentiment executor. The CPU jobs are counted in work, not time, so oversubscribing the cores
+ * can't make them look cheaper.
+ * <p>
+ * Neither mode queues without limit. Platform mode runs overflow on the request thread
+ * (CallerRuns); virtual mode's CPU executor has a bounded queue and rejects the overflow, which
+ * /analyze-async answers with 503. Rejected tasks are reported separately and left out of the
+ * latency percentiles, so compare throughput together with the rejection count.
+ */
+@Tag("benchmark")
+class AsyncModeLoadTest {
+
+    private static final int REQUEST_THREADS = 32;
+    private static final int IO_TASKS = 2_000;
+    private static final int CPU_TASKS = 2_000;
+    private static final long IO_MILLIS = 20;
+    // Same as the async.cpu.queueCapacity default
+    private static final int CPU_QUEUE_CAPACITY = 256;
+
+    @Test
+    void compareThroughputAndTailLatency() throws Exception {
+        // Warm-up run so JIT and thread creation don't skew the first mode
+        runPlatform(false);
+        runVirtual(false);
+
+        Result platform = runPlatform(true);
+        Result virtual = runVirtual(true);
+
+        // Every task either ran or was pushed back; only the bounded CPU queue pushes back
+        assertTrue(platform.completed() == IO_TASKS + CPU_TASKS && platform.rejected() == 0);
+        assertTrue(virtual.completed() + virtual.rejected() == IO_TASKS + CPU_TASKS);
+    }
+
+    private Result runPlatform(boolean print) throws Exception {
+        ThreadPoolTaskExecutor news = AsyncConfig.platformExecutor("News-", 2, 4, 25);
+        ThreadPoolTaskExecutor sentiment = AsyncConfig.platformExecutor("Sentiment-", 4, 8, 50);
+        try {
+            return run("platform", news, sentiment, print);
+        } finally {
+            news.shutdown();
+            sentiment.shutdown();
+        }
+    }
+
+    private Result runVirtual(boolean print) throws Exception {
+        SimpleAsyncTaskExecutor news = AsyncConfig.virtualThreadExecutor("News-", 64);
+        ThreadPoolTaskExecutor sentiment = AsyncConfig.cpuBoundExecutor("Sentiment-", CPU_QUEUE_CAPACITY);
+        try {
+            return run("virtual", news, sentiment, print);
+        } finally {
+            news.close();
+            sentiment.shutdown();
+        }
+    }
+
+    private Result run(String mode, Executor io, Executor cpu, boolean print) throws Exception {
+        int total = IO_TASKS + CPU_TASKS;
+        long[] latencies = new long[total];
+        Arrays.fill(latencies, -1); // Stays -1 for rejected tasks
+        AtomicLong callerRan = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong maxSubmitNanos = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(total);
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            int index = i;
+            boolean ioTask = i % 2 == 0;
+            // Latency counts from the request's arrival, so time spent queued behind busy
+            // request threads (CallerRuns) shows up too
+            long arrived = System.nanoTime();
+            requestThreads.execute(() -> {
+                Thread requestThread = Thread.currentThread();
+                long submitted = System.nanoTime();
+                Runnable task = () -> {
+                    if (Thread.currentThread() == requestThread) {
+                        callerRan.incrementAndGet(); // CallerRuns: the request thread did the work
+                    }
+                    if (ioTask) {
+                        sleep(IO_MILLIS);
+                    } else {
+                        burnCpu();
+                    }
+                    latencies[index] = System.nanoTime() - arrived;
+                    done.countDown();
+                };
+                try {
+                    CompletableFuture.runAsync(task, ioTask ? io : cpu);
+                } catch (RejectedExecutionException e) {
+                    rejected.incrementAndGet(); // The caller would answer 503
+                    done.countDown();
+                }
+                maxSubmitNanos.accumulateAndGet(System.nanoTime() - submitted, Math::max);
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.MINUTES));
+        long wallNanos = System.nanoTime() - start;
+        requestThreads.shutdown();
+
+        long[] served = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+        Result result = new Result(mode, served.length, rejected.get(), wallNanos, percentile(served, 50),
+                percentile(served, 99), percentile(served, 99.9), callerRan.get(), maxSubmitNanos.get());
+        if (print) {
+            System.out.printf("⏱️ %-8s %6.0f tasks/s  p50=%6.1fms  p99=%7.1fms  p99.9=%7.1fms  "
+                            + "run on request thread=%d  rejected=%d  slowest submit=%.1fms%n",
+                    mode, served.length / (wallNanos / 1e9), result.p50Nanos() / 1e6, result.p99Nanos() / 1e6,
+                    result.p999Nanos() / 1e6, result.callerRan(), result.rejected(), result.maxSubmitNanos() / 1e6);
+        }
+        return result;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static void burnCpu() {
+        long x = 0;
+        for (int i = 0; i < 200_000; i++) {
+            x = x * 31 + Long.rotateLeft(x, 7) + i;
+        }
+        if (x == 42) {
+            System.out.print("");
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Result(String mode, int completed, long rejected, long wallNanos, long p50Nanos, long p99Nanos,
+                          long p999Nanos, long callerRan, long maxSubmitNanos) {}
+}
@@ -0,0 +1,103 @@
+package com.newsanalyzer.api.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.services.CountryNewsSnapshot;
+import com.newsanalyzer.api.services.MockNewsService;
+import com.newsanalyzer.api.services.ScheduledNewsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class NewsControllerTest {
+
+    @MockitoBean
+    private ScheduledNewsService scheduledNewsService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private CountryNewsSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        List<NewsArticle> articles = new MockNewsService().generateMockNews("us", 40);
+        long id = 1;
+        for (NewsArticle article : articles) {
+            article.setId(id++);
+            article.setSentimentData(id % 2 == 0 ? "POSITIVE" : "NEGATIVE", 0.2, 0.6);
+        }
+        snapshot = CountryNewsSnapshot.build("us", 1, articles, objectMapper);
+        when(scheduledNewsService.getSnapshot("us")).thenReturn(snapshot);
+        when(scheduledNewsService.getSnapshot("gb")).thenReturn(CountryNewsSnapshot.empty("gb"));
+    }
+
+    @Test
+    void invalidCursorIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/news/page").param("country", "us").param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void cachedFeedIsServedFromPreSerializedBytesWithEtags() throws Exception {
+        MvcResult plain = mockMvc.perform(get("/api/news/cached").param("country", "us"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, snapshot.encoded(null).etag()))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn();
+        // Same JSON the controller would have produced from the list
+        assertEquals(objectMapper.writeValueAsString(snapshot.articles()), plain.getResponse().getContentAsString());
+
+        mockMvc.perform(get("/api/news/cached").param("country", "us").param("sentiment", "positive"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(snapshot.articles("POSITIVE"))));
+
+        mockMvc.perform(get("/api/news/cached").param("country", "us")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + snapshot.encoded(null).etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        MvcResult gzipped = mockMvc.perform(get("/api/news/cached").param("country", "us")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, snapshot.encoded(null).gzipEtag()))
+                .andReturn();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            assertArrayEquals(plain.getResponse().getContentAsByteArray(), in.readAllBytes());
+        }
+        assertNotEquals(snapshot.encoded(null).etag(), snapshot.encoded(null).gzipEtag());
+
+        mockMvc.perform(get("/api/news/cached").param("country", "us").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+
+        mockMvc.perform(get("/api/news/cached").param("country", "gb"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("[]"));
+    }
+}
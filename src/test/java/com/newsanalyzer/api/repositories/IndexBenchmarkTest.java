@@ -0,0 +1,138 @@
+package com.newsanalyzer.api.repositories;
+
+import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.services.ScheduledNewsService;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// p50/p99 of the repository's hot queries over 1M rows, without and then with the entity's indexes:
+// mvn test -Pbenchmark
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:indexbench"
+})
+class IndexBenchmarkTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int COUNTRIES = 100;
+    private static final String[] SENTIMENTS = {"POSITIVE", "NEGATIVE", "NEUTRAL"};
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 30;
+
+    // Keeps the scheduled ingestion from writing to the table while we measure
+    @MockitoBean
+    private ScheduledNewsService scheduledNewsService;
+
+    @Autowired
+    private NewsArticleRepository newsArticleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void repositoryLatencyWithAndWithoutIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        load(now);
+
+        Index[] indexes = NewsArticle.class.getAnnotation(Table.class).indexes();
+        for (Index index : indexes) {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + index.name());
+        }
+        Map<String, long[]> without = measure(now);
+
+        for (Index index : indexes) {
+            jdbcTemplate.execute("CREATE INDEX " + index.name() + " ON news_articles (" + index.columnList() + ")");
+        }
+        jdbcTemplate.execute("ANALYZE");
+        Map<String, long[]> with = measure(now);
+
+        System.out.printf("📈 %-34s %12s %12s %12s %12s%n", ROWS + " rows", "p50 no idx", "p99 no idx", "p50 idx", "p99 idx");
+        without.forEach((name, latencies) -> System.out.printf("📈 %-34s %10.2fms %10.2fms %10.2fms %10.2fms%n", name,
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                percentile(with.get(name), 0.50), percentile(with.get(name), 0.99)));
+
+        assertFalse(newsArticleRepository.findByCountryAndPublishedAtAfter("c0", now.minusHours(1)).isEmpty());
+    }
+
+    // Articles spread over 100 countries and the last 24 hours, ids well clear of the sequence
+    private void load(LocalDateTime now) {
+        SplittableRandom random = new SplittableRandom(9);
+        String sql = "INSERT INTO news_articles (id, title, description, url, country, sentiment, sentiment_score, "
+                + "sentiment_confidence, published_at, source, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        int batch = 10_000;
+        for (int start = 0; start < ROWS; start += batch) {
+            List<Object[]> rows = new ArrayList<>(batch);
+            for (int i = start; i < start + batch; i++) {
+                Timestamp publishedAt = Timestamp.valueOf(now.minusSeconds(random.nextInt(24 * 3600)));
+                rows.add(new Object[] {
+                        100_000_000L + i, "Benchmark headline " + i, "Benchmark description " + i,
+                        "https://bench.test/" + i, "c" + random.nextInt(COUNTRIES), SENTIMENTS[random.nextInt(3)],
+                        random.nextDouble(-1, 1), random.nextDouble(), publishedAt, "Bench", publishedAt
+                });
+            }
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    private Map<String, long[]> measure(LocalDateTime now) {
+        Map<String, long[]> latencies = new LinkedHashMap<>();
+        latencies.put("findByCountry", time(i -> newsArticleRepository.findByCountry(country(i))));
+        latencies.put("findByCountryAndSentiment", time(i ->
+                newsArticleRepository.findByCountryAndSentiment(country(i), SENTIMENTS[i % 3])));
+        latencies.put("findByCountryAndPublishedAtAfter", time(i ->
+                newsArticleRepository.findByCountryAndPublishedAtAfter(country(i), now.minusHours(1))));
+        latencies.put("countSentimentsByCountry", time(i -> newsArticleRepository.countSentimentsByCountry(country(i))));
+        // Deletes a thin slice of the oldest rows and rolls back, so every run sees the same table
+        latencies.put("deleteOldArticles", time(i -> transactionTemplate.executeWithoutResult(status -> {
+            newsArticleRepository.deleteOldArticles(now.minusHours(24).plusSeconds(30 + i));
+            status.setRollbackOnly();
+        })));
+        return latencies;
+    }
+
+    private static String country(int iteration) {
+        return "c" + (iteration * 37 % COUNTRIES);
+    }
+
+    private static long[] time(IntConsumer query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.accept(ITERATIONS + i);
+        }
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            query.accept(i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static double percentile(long[] sortedNanos, double p) {
+        int index = (int) Math.ceil(p * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+}
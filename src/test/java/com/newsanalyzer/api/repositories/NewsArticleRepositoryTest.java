@@ -0,0 +1,51 @@
+package com.newsanalyzer.api.repositories;
+
+import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.services.MockNewsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+class NewsArticleRepositoryTest {
+
+    @Autowired
+    private NewsArticleRepository newsArticleRepository;
+
+    @Test
+    void bulkUpdateSentimentWritesOnlyTheSentimentColumns() {
+        List<NewsArticle> articles = new MockNewsService().generateMockNews("fr", 120);
+        articles.forEach(article -> article.setSentimentData("PROCESSING", null, null));
+        List<NewsArticle> saved = newsArticleRepository.saveAll(articles);
+        saved.forEach(article -> assertNotNull(article.getId()));
+
+        for (int i = 0; i < saved.size(); i++) {
+            NewsArticle article = saved.get(i);
+            article.setSentimentData(i % 2 == 0 ? "POSITIVE" : "NEGATIVE", i / 1000.0, 0.75);
+            article.setTitle("not written"); // Only the sentiment columns are updated
+        }
+        NewsArticle unsaved = new NewsArticle();
+        unsaved.setSentimentData("NEUTRAL", 0.0, 0.5);
+
+        List<NewsArticle> batch = new ArrayList<>(saved);
+        batch.add(unsaved);
+        int updated = newsArticleRepository.bulkUpdateSentiment(batch);
+
+        assertEquals(saved.size(), updated);
+        for (int i = 0; i < saved.size(); i++) {
+            NewsArticle reloaded = newsArticleRepository.findById(saved.get(i).getId()).orElseThrow();
+            assertEquals(i % 2 == 0 ? "POSITIVE" : "NEGATIVE", reloaded.getSentiment());
+            assertEquals(i / 1000.0, reloaded.getSentimentScore(), 0.0);
+            assertEquals(0.75, reloaded.getSentimentConfidence(), 0.0);
+            assertEquals(articles.get(i).getUrl(), reloaded.getUrl());
+            assertNotEquals("not written", reloaded.getTitle());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.services.NewsApiRateLimiter.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdaptiveRefreshSchedulerTest {
+
+    private final ScheduledNewsService newsService = mock(ScheduledNewsService.class);
+    private final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+    private AdaptiveRefreshScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        taskScheduler.setPoolSize(2);
+        taskScheduler.initialize();
+        scheduler = new AdaptiveRefreshScheduler();
+        ReflectionTestUtils.setField(scheduler, "scheduledNewsService", newsService);
+        ReflectionTestUtils.setField(scheduler, "taskScheduler", taskScheduler);
+        ReflectionTestUtils.setField(scheduler, "initialDelaySeconds", 0L);
+        when(newsService.getSupportedCountries()).thenReturn(List.of("us"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskScheduler.shutdown();
+    }
+
+    @Test
+    void intervalFollowsTheArrivalRateWithinBounds() {
+        // Bounds 2..60 minutes, aiming for 10 new articles per run, starting at 15 minutes
+        AdaptiveRefreshScheduler.CountryState busy = scheduler.new CountryState("us", Duration.ofMinutes(15));
+        Instant t = Instant.parse("2025-01-01T00:00:00Z");
+
+        // 30 new in the first 15 minutes = 2/min -> 5 minutes
+        assertEquals(Duration.ofMinutes(5), busy.adapt(30, t));
+        // A burst: 100 in 5 minutes pulls the smoothed rate up, but not below the 2 minute floor
+        assertEquals(Duration.ofMinutes(2), busy.adapt(100, t.plus(Duration.ofMinutes(5))));
+
+        AdaptiveRefreshScheduler.CountryState quiet = scheduler.new CountryState("gb", Duration.ofMinutes(15));
+        // Nothing new: back off, doubling at most per run, up to the 60 minute ceiling
+        assertEquals(Duration.ofMinutes(30), quiet.adapt(0, t));
+        assertEquals(Duration.ofMinutes(60), quiet.adapt(0, t.plus(Duration.ofMinutes(30))));
+        assertEquals(Duration.ofMinutes(60), quiet.adapt(0, t.plus(Duration.ofMinutes(90))));
+    }
+
+    @Test
+    void runsForOneCountryNeverOverlap() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(newsService.refreshCountries(eq(List.of("us")), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new IngestionPipeline.CycleReport(1, Map.of("us", 5), Map.of("us", 5), List.of());
+        });
+
+        scheduler.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        AdaptiveRefreshScheduler.CountrySchedule running = scheduler.getSchedule().get(0);
+        assertTrue(running.running());
+
+        // Forcing a refresh while the scheduled run is going leaves the country alone
+        assertEquals(List.of(), scheduler.forceRefresh());
+        release.countDown();
+
+        // Once done, the country gets exactly one next run, in the future
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getSchedule().get(0).running() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        AdaptiveRefreshScheduler.CountrySchedule next = scheduler.getSchedule().get(0);
+        assertNotNull(next.nextRun());
+        assertEquals(5, next.lastNewArticles());
+        verify(newsService, times(1)).refreshCountries(List.of("us"), Priority.BACKGROUND);
+
+        // Now it's idle, so a forced refresh takes it in the interactive lane
+        assertEquals(List.of("us"), scheduler.forceRefresh());
+        verify(newsService, times(1)).refreshCountries(List.of("us"), Priority.INTERACTIVE);
+    }
+}
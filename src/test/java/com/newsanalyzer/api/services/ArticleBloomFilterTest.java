@@ -0,0 +1,29 @@
+package com.newsanalyzer.api.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArticleBloomFilterTest {
+
+    @Test
+    void hasNoFalseNegativesAndAboutTheConfiguredFalsePositiveRate() {
+        ArticleBloomFilter filter = new ArticleBloomFilter(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.put("https://example.com/news/" + i, i % 2 == 0 ? "us" : "gb");
+        }
+
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(filter.mightContain("https://example.com/news/" + i, i % 2 == 0 ? "us" : "gb"));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            // Same urls under the other country, plus urls never added
+            if (filter.mightContain("https://example.com/news/" + i, i % 2 == 0 ? "gb" : "us")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
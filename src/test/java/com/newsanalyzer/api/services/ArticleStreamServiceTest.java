@@ -0,0 +1,68 @@
+package com.newsanalyzer.api.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsanalyzer.api.models.ArticleCursor;
+import com.newsanalyzer.api.models.NewsArticle;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ArticleStreamServiceTest {
+
+    @Autowired
+    private ArticleStreamService articleStreamService;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void streamsTheFeedAsNdjsonAndAsAJsonArray() throws Exception {
+        List<NewsArticle> articles = new MockNewsService().generateMockNews("xd", 250);
+        for (int i = 0; i < articles.size(); i++) {
+            articles.get(i).setSentimentData(i % 3 == 0 ? "POSITIVE" : "NEUTRAL", 0.1, i % 2 == 0 ? 0.9 : 0.4);
+        }
+        newsService.saveArticles(articles);
+        List<Long> expected = newsService.getNewsByCountryAndSentiment("xd", null).stream()
+                .sorted(Comparator.comparing(ArticleCursor::of))
+                .map(NewsArticle::getId)
+                .toList();
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        articleStreamService.writeNews("xd", null, ArticleStreamService.Format.NDJSON, ndjson);
+        String body = ndjson.toString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("\n"));
+        List<Long> streamed = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            streamed.add(objectMapper.readTree(line).get("id").asLong());
+        }
+        assertEquals(expected, streamed);
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        articleStreamService.writeHighConfidenceNews("xd", "POSITIVE", ArticleStreamService.Format.JSON, json);
+        JsonNode array = objectMapper.readTree(json.toByteArray());
+        assertTrue(array.isArray());
+        assertTrue(array.size() > 0);
+        for (JsonNode article : array) {
+            assertEquals("POSITIVE", article.get("sentiment").asText());
+            assertTrue(article.get("sentimentConfidence").asDouble() > 0.7);
+        }
+
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        articleStreamService.writeArticles(List.of(), ArticleStreamService.Format.JSON, empty);
+        assertEquals("[]", empty.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,60 @@
+package com.newsanalyzer.api.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsanalyzer.api.models.ArticleView;
+import com.newsanalyzer.api.models.NewsArticle;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountryNewsSnapshotTest {
+
+    @Test
+    void sortsNewestFirstAndSlicesBySentiment() {
+        LocalDateTime now = LocalDateTime.of(2025, 3, 1, 12, 0);
+        String[] sentiments = {"POSITIVE", "NEGATIVE", "NEUTRAL", "NEGATIVE", null, "mixed"};
+        List<NewsArticle> entities = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            NewsArticle article = new NewsArticle();
+            article.setId((long) i);
+            article.setCountry("us");
+            article.setPublishedAt(now.minusMinutes((i * 7) % 30)); // Shuffled times, some shared
+            article.setSentiment(sentiments[i % sentiments.length]);
+            entities.add(article);
+        }
+
+        CountryNewsSnapshot snapshot = CountryNewsSnapshot.build("us", 3, entities, new ObjectMapper().findAndRegisterModules());
+
+        List<ArticleView> all = snapshot.articles();
+        assertEquals(30, all.size());
+        assertEquals(3, snapshot.getVersion());
+        for (int i = 1; i < all.size(); i++) {
+            ArticleView newer = all.get(i - 1);
+            ArticleView older = all.get(i);
+            int byTime = newer.publishedAt().compareTo(older.publishedAt());
+            assertTrue(byTime > 0 || (byTime == 0 && newer.id() > older.id()));
+        }
+
+        List<ArticleView> negative = snapshot.articles("negative");
+        assertEquals(10, negative.size());
+        assertEquals(all.stream().filter(a -> "NEGATIVE".equals(a.sentiment())).toList(), negative);
+        assertEquals(5, snapshot.articles("POSITIVE").size());
+        assertEquals(5, snapshot.articles("NEUTRAL").size());
+        assertEquals(0, snapshot.articles("PROCESSING").size());
+        assertEquals(List.of(), snapshot.articles("mixed"));
+        assertEquals(all, snapshot.articles(""));
+
+        assertThrows(UnsupportedOperationException.class, () -> all.set(0, null));
+        assertThrows(UnsupportedOperationException.class, () -> negative.remove(0));
+
+        CountryNewsSnapshot empty = CountryNewsSnapshot.empty("gb");
+        assertEquals(0, empty.size());
+        assertEquals(List.of(), empty.articles("POSITIVE"));
+    }
+}
@@ -0,0 +1,322 @@
+package com.newsanalyzer.api.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsanalyzer.api.models.NewsArticle;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExternalNewsServiceTest {
+
+    private static final List<String> COUNTRIES = List.of("us", "gb", "ca", "au", "in", "de", "fr");
+    private static final int ARTICLES_PER_COUNTRY = 20;
+    private static final long RESPONSE_DELAY_MILLIS = 300;
+
+    private HttpServer server;
+    private ExternalNewsService service;
+    private NewsApiRateLimiter rateLimiter;
+
+    // Stub behaviour, per request: country -> attempt number -> status (200 if absent)
+    private final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+    private volatile Function<String, Integer> failures = (key) -> 200;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    // Conditional-request support: the feed's ETag (null = none), articles published since, 304s sent
+    private volatile String feedEtag;
+    private volatile int newArticles;
+    private final AtomicInteger notModified = new AtomicInteger();
+    // Publication time of the feed's first article, in UTC; article i is i minutes later
+    private volatile LocalDateTime feedStart = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v2/top-headlines", this::handle);
+        server.start();
+
+        // Plenty of quota, so only the 429 test sees the limiter
+        rateLimiter = new NewsApiRateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "requestsPerMinute", 60_000.0);
+        ReflectionTestUtils.setField(rateLimiter, "burst", 100);
+        rateLimiter.initialize();
+        service = new ExternalNewsService(WebClient.builder(), new ObjectMapper(), rateLimiter,
+                new NewsMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "apiUrl", "http://127.0.0.1:" + server.getAddress().getPort() + "/v2/top-headlines");
+        ReflectionTestUtils.setField(service, "apiKey", "test");
+        ReflectionTestUtils.setField(service, "pageSize", ARTICLES_PER_COUNTRY);
+        ReflectionTestUtils.setField(service, "concurrency", 4);
+        ReflectionTestUtils.setField(service, "timeoutMillis", 1000L);
+        ReflectionTestUtils.setField(service, "retries", 2);
+        ReflectionTestUtils.setField(service, "retryBackoffMillis", 20L);
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void fansOutWithBoundedConcurrency() {
+        long start = System.nanoTime();
+        List<NewsArticle> articles = service.fetchNews(COUNTRIES).collectList().block();
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("⏱️ Fetched " + articles.size() + " articles from " + COUNTRIES.size()
+                + " countries in " + wallMillis + "ms (sequential would be >= "
+                + COUNTRIES.size() * RESPONSE_DELAY_MILLIS + "ms)");
+
+        Map<String, Long> byCountry = articles.stream()
+                .collect(Collectors.groupingBy(NewsArticle::getCountry, Collectors.counting()));
+        COUNTRIES.forEach(country -> assertEquals(ARTICLES_PER_COUNTRY, byCountry.get(country), country));
+        assertTrue(articles.stream().allMatch(a -> a.getTitle() != null && a.getPublishedAt() != null));
+
+        assertEquals(4, maxInFlight.get());
+        // 7 countries, 4 at a time: two rounds of the stub's delay, not seven
+        assertTrue(wallMillis < COUNTRIES.size() * RESPONSE_DELAY_MILLIS, "took " + wallMillis + "ms");
+    }
+
+    @Test
+    void retriesTransientFailuresAndSkipsPermanentOnes() {
+        // gb: 503 then OK; au: 429 then OK; ca: hangs past the timeout then OK;
+        // de: always 500; fr: 404 (not retried)
+        failures = key -> switch (key) {
+            case "gb#1" -> 503;
+            case "au#1" -> 429;
+            case "ca#1" -> -1;
+            case "fr#1" -> 404;
+            default -> key.startsWith("de#") ? 500 : 200;
+        };
+        Map<String, Throwable> errors = new ConcurrentHashMap<>();
+
+        List<NewsArticle> articles = service.fetchNews(COUNTRIES, NewsApiRateLimiter.Priority.BACKGROUND, errors::put).collectList().block();
+
+        Map<String, Long> byCountry = articles.stream()
+                .collect(Collectors.groupingBy(NewsArticle::getCountry, Collectors.counting()));
+        assertEquals(ARTICLES_PER_COUNTRY, byCountry.get("gb"));
+        assertEquals(ARTICLES_PER_COUNTRY, byCountry.get("ca"));
+        assertEquals(ARTICLES_PER_COUNTRY, byCountry.get("au"));
+        assertEquals(1, rateLimiter.throttledCount());
+        assertEquals(Map.of("de", true, "fr", true),
+                errors.keySet().stream().collect(Collectors.toMap(c -> c, c -> true)));
+        assertEquals(3, attempts.get("de").get()); // First try plus two retries
+        assertEquals(1, attempts.get("fr").get());
+    }
+
+    @Test
+    void emitsArticlesBeforeTheBodyIsComplete() {
+        ReflectionTestUtils.setField(service, "timeoutMillis", 5000L);
+        long start = System.nanoTime();
+        long[] firstArticleAt = {-1};
+        List<NewsArticle> articles = service.fetchNews(List.of("slow"))
+                .doOnNext(article -> {
+                    if (firstArticleAt[0] < 0) {
+                        firstArticleAt[0] = System.nanoTime();
+                    }
+                })
+                .collectList().block();
+        long doneAt = System.nanoTime();
+
+        assertEquals(ARTICLES_PER_COUNTRY, articles.size());
+        // The stub pauses half-way through the body
+        assertTrue((doneAt - firstArticleAt[0]) / 1_000_000 >= RESPONSE_DELAY_MILLIS / 2,
+                "first article " + (firstArticleAt[0] - start) / 1_000_000 + "ms, done " + (doneAt - start) / 1_000_000 + "ms");
+    }
+
+    @Test
+    void dropsArticlesBehindTheWatermark() {
+        assertEquals(ARTICLES_PER_COUNTRY, fetchAndStore("us").size());
+        // Same page again: every article is at or behind the watermark
+        assertEquals(List.of(), fetchAndStore("us"));
+
+        newArticles = 3;
+        List<NewsArticle> fresh = fetchAndStore("us");
+        assertEquals(List.of("https://stub.example/us/20", "https://stub.example/us/21", "https://stub.example/us/22"),
+                fresh.stream().map(NewsArticle::getUrl).toList());
+        assertEquals(List.of(), fetchAndStore("us"));
+        assertEquals(0, notModified.get());
+    }
+
+    @Test
+    void redeliversArticlesUntilTheirWatermarkIsCommitted() {
+        feedEtag = "\"v1\"";
+        Map<String, ExternalNewsService.Watermark> fetched = new ConcurrentHashMap<>();
+
+        // The articles arrive but storing them fails, so the caller never commits the watermark
+        assertEquals(ARTICLES_PER_COUNTRY, fetch("us", fetched::put).size());
+        assertNotNull(fetched.remove("us"));
+
+        // The next fetch is unconditional and delivers the same articles again
+        List<NewsArticle> again = fetch("us", fetched::put);
+        assertEquals(ARTICLES_PER_COUNTRY, again.size());
+        assertEquals(0, notModified.get());
+
+        // Stored this time: once committed, the page is behind the watermark
+        service.commitWatermark("us", fetched.get("us"));
+        assertEquals(List.of(), fetchAndStore("us"));
+        assertEquals(1, notModified.get());
+    }
+
+    @Test
+    void sendsConditionalRequests() {
+        feedEtag = "\"v1\"";
+        assertEquals(ARTICLES_PER_COUNTRY, fetchAndStore("gb").size());
+        assertEquals(List.of(), fetchAndStore("gb"));
+        assertEquals(1, notModified.get());
+
+        feedEtag = "\"v2\"";
+        newArticles = 1;
+        assertEquals(1, fetchAndStore("gb").size());
+        assertEquals(1, notModified.get());
+    }
+
+    @Test
+    void articlesWithoutAUrlDoNotBreakTheWatermark() {
+        // The stub's newest "nourl" article has "url": null
+        List<NewsArticle> first = fetchAndStore("nourl");
+        assertEquals(ARTICLES_PER_COUNTRY, first.size());
+
+        // The watermark still moved up to the newest article with a url; the url-less one is never seen
+        List<NewsArticle> second = fetchAndStore("nourl");
+        assertEquals(1, second.size());
+        assertNull(second.get(0).getUrl());
+    }
+
+    @Test
+    void watermarkComparesPublicationTimesInUtc() {
+        // West of UTC the local clock reads hours behind the feed's UTC times
+        TimeZone zone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Los_Angeles"));
+        try {
+            feedStart = LocalDateTime.now(ZoneOffset.UTC).minusHours(1);
+            assertEquals(ARTICLES_PER_COUNTRY, fetchAndStore("us").size());
+            assertEquals(List.of(), fetchAndStore("us"));
+        } finally {
+            TimeZone.setDefault(zone);
+        }
+    }
+
+    // One country's fetch; any error fails the test
+    private List<NewsArticle> fetch(String country, BiConsumer<String, ExternalNewsService.Watermark> onFetched) {
+        return service.fetchNews(List.of(country), NewsApiRateLimiter.Priority.BACKGROUND,
+                (c, e) -> {
+                    throw new AssertionError("fetch failed for " + c, e);
+                }, onFetched).collectList().block();
+    }
+
+    // A fetch whose articles are stored, so the watermark is committed straight away
+    private List<NewsArticle> fetchAndStore(String country) {
+        return fetch(country, service::commitWatermark);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String country = query(exchange.getRequestURI(), "country");
+        int attempt = attempts.computeIfAbsent(country, c -> new AtomicInteger()).incrementAndGet();
+        int concurrent = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(concurrent, Math::max);
+        try {
+            int status = failures.apply(country + "#" + attempt);
+            if (status == -1) {
+                sleep(3000); // Past the client's timeout
+                return;
+            }
+            sleep(RESPONSE_DELAY_MILLIS);
+            if (status != 200) {
+                byte[] error = ("{\"status\":\"error\",\"code\":\"stub\",\"message\":\"HTTP " + status + "\"}")
+                        .getBytes(StandardCharsets.UTF_8);
+                if (status == 429) {
+                    exchange.getResponseHeaders().add("Retry-After", "0");
+                }
+                exchange.sendResponseHeaders(status, error.length);
+                exchange.getResponseBody().write(error);
+                return;
+            }
+
+            String etag = feedEtag;
+            if (etag != null && etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            if (etag != null) {
+                exchange.getResponseHeaders().add("ETag", etag);
+            }
+
+            int total = ARTICLES_PER_COUNTRY + newArticles;
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0); // Chunked
+            OutputStream out = exchange.getResponseBody();
+            out.write(("{\"status\":\"ok\",\"totalResults\":" + total + ",\"articles\":[")
+                    .getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < total; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                boolean withUrl = !("nourl".equals(country) && i == total - 1);
+                out.write(article(country, i, withUrl).getBytes(StandardCharsets.UTF_8));
+                if ("slow".equals(country) && i == ARTICLES_PER_COUNTRY / 2) {
+                    out.flush();
+                    sleep(RESPONSE_DELAY_MILLIS);
+                }
+            }
+            out.write("]}".getBytes(StandardCharsets.UTF_8));
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    // Article i is published i minutes after feedStart, so later ones move the watermark
+    private String article(String country, int i, boolean withUrl) {
+        String url = withUrl ? "\"https://stub.example/" + country + "/" + i + "\"" : "null";
+        return "{\"source\":{\"id\":null,\"name\":\"Stub " + country + "\"},\"author\":\"A\","
+                + "\"title\":\"Headline " + i + " for " + country + "\",\"description\":\"Text [" + i + "]\","
+                + "\"url\":" + url + ",\"urlToImage\":null,"
+                + "\"publishedAt\":\"" + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(feedStart.plusMinutes(i).withNano(0))
+                + "Z\",\"content\":null}";
+    }
+
+    private static String query(URI uri, String name) {
+        for (String pair : uri.getRawQuery().split("&")) {
+            if (pair.startsWith(name + "=")) {
+                return pair.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.newsanalyzer.api.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.models.external.NewsApiArticle;
+import com.newsanalyzer.api.models.external.NewsApiResponse;
+import com.newsanalyzer.api.models.external.NewsApiSource;
+import com.newsanalyzer.api.repositories.NewsArticleRepository;
+import com.newsanalyzer.api.services.NewsApiRateLimiter.Priority;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end ingestion throughput (fetch -> dedupe -> score -> persist -> cache) against a local
+ * NewsAPI stand-in: mvn test -Pbenchmark -Dtest=IngestionBenchmarkTest
+ * <p>
+ * The stub answers every country with a page of brand-new articles after a fixed delay, so each
+ * cycle saves everything it fetches. Knobs, as -D properties: ingest.bench.cycles (10),
+ * ingest.bench.articles per response (100), ingest.bench.latencyMillis (50) and
+ * ingest.bench.minArticlesPerSecond, the regression gate (0 = report only).
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "ingestion.source=newsapi",
+        "refresh.enabled=false",
+        "spring.jpa.show-sql=false",
+        // Own database, so other benchmarks' rows don't count
+        "spring.datasource.url=jdbc:h2:mem:ingestbench",
+        "newsapi.key=bench",
+        "newsapi.rate.requestsPerMinute=600000",
+        "newsapi.rate.burst=1000"
+})
+class IngestionBenchmarkTest {
+
+    private static final int CYCLES = Integer.getInteger("ingest.bench.cycles", 10);
+    private static final int ARTICLES = Integer.getInteger("ingest.bench.articles", 100);
+    private static final long LATENCY_MILLIS = Long.getLong("ingest.bench.latencyMillis", 50);
+    private static final double MIN_ARTICLES_PER_SECOND =
+            Double.parseDouble(System.getProperty("ingest.bench.minArticlesPerSecond", "0"));
+    private static final int WARMUP_CYCLES = 2;
+
+    private static final List<String> COUNTRIES = List.of("us", "gb", "ca", "au", "in", "de", "fr");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final NewsStub STUB = NewsStub.start();
+
+    @Autowired
+    private ScheduledNewsService scheduledNewsService;
+
+    @Autowired
+    private NewsArticleRepository newsArticleRepository;
+
+    @DynamicPropertySource
+    static void newsApi(DynamicPropertyRegistry registry) {
+        registry.add("newsapi.url", () -> "http://127.0.0.1:" + STUB.server.getAddress().getPort() + "/v2/top-headlines");
+        registry.add("newsapi.pageSize", () -> ARTICLES);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.server.stop(0);
+    }
+
+    @Test
+    void ingestionThroughput() {
+        // Warm-up cycles so JIT, Hibernate and the connection pools are settled
+        for (int i = 0; i < WARMUP_CYCLES; i++) {
+            scheduledNewsService.refreshCountries(COUNTRIES, Priority.BACKGROUND);
+        }
+        STUB.requestMicros.clear();
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        long gcCountBefore = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+        long gcMillisBefore = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+        long rowsBefore = newsArticleRepository.count();
+
+        Map<String, List<Long>> chunkMicros = new LinkedHashMap<>();
+        long fetched = 0;
+        long saved = 0;
+        long failures = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < CYCLES; i++) {
+            IngestionPipeline.CycleReport report = scheduledNewsService.refreshCountries(COUNTRIES, Priority.BACKGROUND);
+            fetched += report.totalFetched();
+            saved += report.totalSaved();
+            for (IngestionPipeline.StageTiming stage : report.stages()) {
+                chunkMicros.computeIfAbsent(stage.stage(), s -> new ArrayList<>()).addAll(stage.chunkMicros());
+                failures += stage.failures();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long rowsWritten = newsArticleRepository.count() - rowsBefore;
+        long gcCount = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum() - gcCountBefore;
+        long gcMillis = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum() - gcMillisBefore;
+
+        System.out.printf("%n📈 Ingestion: %d cycles x %d countries x %d articles, stub latency %dms%n",
+                CYCLES, COUNTRIES.size(), ARTICLES, LATENCY_MILLIS);
+        System.out.printf("   %,d fetched, %,d saved, %,d rows written in %.2fs = %,.0f articles/sec%n",
+                fetched, saved, rowsWritten, seconds, saved / seconds);
+        System.out.printf("   %-12s %7s %10s %10s %10s %10s%n", "stage", "chunks", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        printLatencies("http (stub)", new ArrayList<>(STUB.requestMicros));
+        chunkMicros.forEach(this::printLatencies);
+        System.out.printf("   heap used %,d MB of %,d MB, %d GCs taking %dms%n",
+                memory.getHeapMemoryUsage().getUsed() >> 20, memory.getHeapMemoryUsage().getCommitted() >> 20,
+                gcCount, gcMillis);
+
+        assertEquals(0, failures);
+        assertEquals((long) CYCLES * COUNTRIES.size() * ARTICLES, saved);
+        assertEquals(saved, rowsWritten);
+        assertTrue(saved / seconds >= MIN_ARTICLES_PER_SECOND,
+                String.format("%.0f articles/sec is below the %.0f gate", saved / seconds, MIN_ARTICLES_PER_SECOND));
+    }
+
+    private void printLatencies(String stage, List<Long> micros) {
+        long[] sorted = micros.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (sorted.length == 0) {
+            return;
+        }
+        System.out.printf("   %-12s %7d %10.2f %10.2f %10.2f %10.2f%n", stage, sorted.length,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                sorted[sorted.length - 1] / 1000.0);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1000.0;
+    }
+
+    /**
+     * NewsAPI stand-in: every request gets {@link #ARTICLES} articles nobody has seen yet, each
+     * published after the previous response's, so the watermark and dedupe let all of them through.
+     */
+    private static final class NewsStub {
+        private final HttpServer server;
+        private final Queue<Long> requestMicros = new ConcurrentLinkedQueue<>();
+        private final Map<String, AtomicLong> published = new ConcurrentHashMap<>();
+        private final List<NewsArticle> corpus = new MockNewsService().generateMockNews("us", 500);
+        // Article timestamps count up from here, one second apart, well inside the retention window
+        private final Instant base = Instant.now().minus(6, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS);
+
+        private NewsStub(HttpServer server) {
+            this.server = server;
+        }
+
+        static NewsStub start() {
+            try {
+                HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+                server.setExecutor(Executors.newCachedThreadPool());
+                NewsStub stub = new NewsStub(server);
+                server.createContext("/v2/top-headlines", stub::handle);
+                server.start();
+                return stub;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            long start = System.nanoTime();
+            try {
+                String country = Arrays.stream(exchange.getRequestURI().getRawQuery().split("&"))
+                        .filter(pair -> pair.startsWith("country="))
+                        .map(pair -> pair.substring("country=".length()))
+                        .findFirst().orElse("us");
+                Thread.sleep(LATENCY_MILLIS);
+
+                long first = published.computeIfAbsent(country, c -> new AtomicLong()).getAndAdd(ARTICLES);
+                List<NewsApiArticle> articles = new ArrayList<>(ARTICLES);
+                for (int i = 0; i < ARTICLES; i++) {
+                    long n = first + i;
+                    NewsArticle text = corpus.get((int) (n % corpus.size()));
+                    NewsApiSource source = new NewsApiSource();
+                    source.setName("Stub " + country);
+                    NewsApiArticle article = new NewsApiArticle();
+                    article.setSource(source);
+                    article.setAuthor("Bench");
+                    article.setTitle(text.getTitle());
+                    article.setDescription(text.getDescription());
+                    article.setUrl("https://stub.example/" + country + "/" + n);
+                    article.setPublishedAt(base.plusSeconds(n).toString());
+                    articles.add(article);
+                }
+                NewsApiResponse response = new NewsApiResponse();
+                response.setStatus("ok");
+                response.setTotalResults(ARTICLES);
+                response.setArticles(articles);
+
+                byte[] body = MAPPER.writeValueAsBytes(response);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+                requestMicros.add((System.nanoTime() - start) / 1000);
+            }
+        }
+    }
+}
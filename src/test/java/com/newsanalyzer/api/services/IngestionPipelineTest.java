@@ -0,0 +1,156 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.models.SentimentLabel;
+import com.newsanalyzer.api.repositories.NewsArticleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "refresh.enabled=false")
+class IngestionPipelineTest {
+
+    @Autowired
+    private IngestionPipeline ingestionPipeline;
+
+    @Autowired
+    private NewsArticleRepository newsArticleRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void runsEveryStageAndPersistsScoredArticles() {
+        List<String> countries = List.of("us", "gb", "de");
+        double savedBefore = savedArticles("gb");
+        Set<String> refreshed = ConcurrentHashMap.newKeySet();
+        List<NewsArticle> persisted = new CopyOnWriteArrayList<>();
+
+        IngestionPipeline.CycleReport report = ingestionPipeline.runCycle(countries, persisted::addAll, refreshed::add);
+
+        assertEquals(Set.copyOf(countries), report.fetchedByCountry().keySet());
+        assertTrue(report.totalFetched() > 0);
+        assertTrue(report.totalSaved() > 0);
+        assertTrue(report.totalSaved() <= report.totalFetched());
+        assertEquals(report.savedByCountry().keySet(), refreshed);
+        assertEquals(report.totalSaved(), persisted.size());
+
+        List<String> stages = report.stages().stream().map(IngestionPipeline.StageTiming::stage).toList();
+        assertEquals(List.of("fetch", "dedupe", "score", "persist", "cache"), stages);
+        report.stages().forEach(stage -> assertEquals(0, stage.failures(), stage.stage()));
+
+        // The same numbers land in the metrics, tagged by country
+        assertEquals(report.savedByCountry().getOrDefault("gb", 0).doubleValue(), savedArticles("gb") - savedBefore);
+        assertTrue(meterRegistry.get("news.pipeline.stage").tags("stage", "score", "country", "gb").timer().count() > 0);
+        assertTrue(meterRegistry.get("sentiment.batch").timer().count() > 0);
+
+        for (String country : countries) {
+            for (NewsArticle article : newsArticleRepository.findByCountry(country)) {
+                assertNotNull(article.getId());
+                assertNotNull(article.getSentiment(), article.getUrl());
+            }
+        }
+    }
+
+    @Test
+    void commitsFeedWatermarksOnlyForCountriesThatWereStored() {
+        List<String> countries = List.of("us", "gb");
+        ExternalNewsService externalNewsService = mock(ExternalNewsService.class);
+        SentimentAnalysisService sentimentAnalysisService = mock(SentimentAnalysisService.class);
+        NewsService newsService = mock(NewsService.class);
+        ExternalNewsService.Watermark usWatermark = watermark("us");
+        ExternalNewsService.Watermark gbWatermark = watermark("gb");
+
+        List<NewsArticle> feed = new ArrayList<>();
+        for (String country : countries) {
+            for (int i = 0; i < 3; i++) {
+                NewsArticle article = new NewsArticle();
+                article.setCountry(country);
+                article.setTitle("Headline " + i);
+                article.setUrl("https://feed.example/" + country + "/" + i);
+                article.setPublishedAt(LocalDateTime.now().minusMinutes(i));
+                feed.add(article);
+            }
+        }
+        when(externalNewsService.fetchNews(eq(countries), any(), any(), any())).thenAnswer(invocation -> {
+            BiConsumer<String, ExternalNewsService.Watermark> onFetched = invocation.getArgument(3);
+            return Flux.fromIterable(feed).doOnComplete(() -> {
+                onFetched.accept("us", usWatermark);
+                onFetched.accept("gb", gbWatermark);
+            });
+        });
+        when(sentimentAnalysisService.analyzeBatchColumnar(anyList())).thenAnswer(invocation -> {
+            SentimentBatch batch = new SentimentBatch(invocation.<List<String>>getArgument(0).size());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.set(i, SentimentLabel.NEUTRAL, 0.0, 0.5);
+            }
+            return batch;
+        });
+        when(newsService.filterNewArticles(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        // The database is down for gb's batch
+        when(newsService.persistArticles(anyList())).thenAnswer(invocation -> {
+            List<NewsArticle> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(article -> "gb".equals(article.getCountry()))) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return batch;
+        });
+
+        IngestionPipeline pipeline = new IngestionPipeline();
+        ReflectionTestUtils.setField(pipeline, "externalNewsService", externalNewsService);
+        ReflectionTestUtils.setField(pipeline, "sentimentAnalysisService", sentimentAnalysisService);
+        ReflectionTestUtils.setField(pipeline, "newsService", newsService);
+        ReflectionTestUtils.setField(pipeline, "newsMetrics", new NewsMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(pipeline, "source", "newsapi");
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", 4);
+        ReflectionTestUtils.setField(pipeline, "batchSize", 1); // One country per persisted batch
+        ReflectionTestUtils.setField(pipeline, "asyncMode", "platform");
+        pipeline.initialize();
+        try {
+            IngestionPipeline.CycleReport report = pipeline.runCycle(countries, saved -> {}, country -> {});
+
+            assertEquals(3, report.savedByCountry().get("us"));
+            assertFalse(report.savedByCountry().containsKey("gb"));
+            // gb's watermark stays put, so its next fetch delivers the same articles again
+            verify(externalNewsService).commitWatermark("us", usWatermark);
+            verify(externalNewsService, never()).commitWatermark(eq("gb"), any());
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    private static ExternalNewsService.Watermark watermark(String country) {
+        return new ExternalNewsService.Watermark(LocalDateTime.now(), Set.of("https://feed.example/" + country + "/0"),
+                null, null);
+    }
+
+    private double savedArticles(String country) {
+        Counter counter = meterRegistry.find("news.articles.saved").tag("country", country).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,196 @@
+package com.newsanalyzer.api.services;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+import com.newsanalyzer.api.services.NewsApiRateLimiter.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ingestion rate with logging off, on through the async appender, and on straight to stdout:
+ * mvn test -Pbenchmark -Dtest=LoggingOverheadBenchmarkTest
+ * <p>
+ * "On" is the old verbosity: DEBUG for the app, a trace for every scored article and every SQL
+ * statement, which is what spring.jpa.show-sql used to print. Each round runs one cycle per mode,
+ * so drift in the JVM or the database hits all three alike. Knobs, as -D properties:
+ * logging.bench.rounds (5), logging.bench.articles per country and cycle (200) and
+ * logging.bench.maxAsyncSlowdown, the regression gate in percent (0 = report only).
+ * <p>
+ * The async appender runs with discardingThreshold 0 and neverBlock off here, and every event it
+ * takes in is counted against what reaches the console: a run where it dropped anything fails,
+ * since timing events that were never written would flatter it.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "ingestion.source=synthetic",
+        "refresh.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:loggingbench",
+        "synthetic.duplicateRate=0",
+        "logging.async.discardingThreshold=0",
+        "logging.async.neverBlock=false",
+        "synthetic.articlesPerFetch=${logging.bench.articles:200}",
+        "ingestion.traceSampleRate=1"
+})
+class LoggingOverheadBenchmarkTest {
+
+    private static final int ROUNDS = Integer.getInteger("logging.bench.rounds", 5);
+    private static final int ARTICLES = Integer.getInteger("logging.bench.articles", 200);
+    private static final double MAX_ASYNC_SLOWDOWN =
+            Double.parseDouble(System.getProperty("logging.bench.maxAsyncSlowdown", "0"));
+
+    private static final List<String> COUNTRIES = List.of("us", "gb", "ca", "au", "in", "de", "fr");
+    private static final List<String> VERBOSE_LOGGERS = List.of("com.newsanalyzer", "org.hibernate.SQL");
+
+    private enum Mode { OFF, ASYNC, SYNC }
+
+    @Autowired
+    private ScheduledNewsService scheduledNewsService;
+
+    @Autowired
+    private LoggingSystem loggingSystem;
+
+    // Looked up once the context has configured logging
+    private ch.qos.logback.classic.Logger root;
+    private AsyncAppender async;
+    private Appender<ILoggingEvent> console;
+    private List<Filter<ILoggingEvent>> consoleFilters;
+
+    // Events taken in by the async appender and events the console wrote
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private long asyncEvents;
+    private long asyncDropped;
+
+    @AfterEach
+    void restoreLogging() {
+        if (async == null) {
+            return;
+        }
+        use(Mode.ASYNC);
+        VERBOSE_LOGGERS.forEach(name -> loggingSystem.setLogLevel(name, null));
+        async.clearAllFilters();
+        console.clearAllFilters();
+        consoleFilters.forEach(console::addFilter);
+    }
+
+    @Test
+    void ingestionRateWithLoggingOnAndOff() throws InterruptedException {
+        root = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(Logger.ROOT_LOGGER_NAME);
+        async = (AsyncAppender) root.getAppender("ASYNC");
+        assertNotNull(async, "logback-spring.xml should attach the ASYNC appender to the root logger");
+        assertEquals(0, async.getDiscardingThreshold());
+        assertFalse(async.isNeverBlock());
+        console = async.getAppender("CONSOLE");
+        consoleFilters = console.getCopyOfAttachedFiltersList();
+        async.addFilter(counting(submitted));
+        console.addFilter(counting(written));
+
+        // Warm-up, one cycle per mode
+        for (Mode mode : Mode.values()) {
+            cycle(mode);
+        }
+        asyncEvents = 0;
+        asyncDropped = 0;
+
+        Map<Mode, long[]> totals = new EnumMap<>(Mode.class); // saved, nanos
+        for (int round = 0; round < ROUNDS; round++) {
+            for (Mode mode : Mode.values()) {
+                long start = System.nanoTime();
+                int saved = cycle(mode);
+                long nanos = System.nanoTime() - start;
+                long[] total = totals.computeIfAbsent(mode, m -> new long[2]);
+                total[0] += saved;
+                total[1] += nanos;
+                assertEquals(COUNTRIES.size() * ARTICLES, saved, mode + " cycle saved everything it fetched");
+            }
+        }
+
+        double off = rate(totals.get(Mode.OFF));
+        System.out.printf("%n📈 Logging overhead: %d rounds x %d countries x %d articles%n",
+                ROUNDS, COUNTRIES.size(), ARTICLES);
+        System.out.printf("   %-6s %14s %10s%n", "mode", "articles/sec", "slowdown");
+        for (Mode mode : Mode.values()) {
+            double rate = rate(totals.get(mode));
+            System.out.printf("   %-6s %,14.0f %9.1f%%%n", mode.name().toLowerCase(), rate, slowdown(off, rate));
+        }
+        System.out.printf("   async: %,d events logged, %,d dropped%n", asyncEvents, asyncDropped);
+
+        assertEquals(0, asyncDropped, "The async appender dropped events, so its rate isn't comparable");
+        double asyncSlowdown = slowdown(off, rate(totals.get(Mode.ASYNC)));
+        assertTrue(MAX_ASYNC_SLOWDOWN <= 0 || asyncSlowdown <= MAX_ASYNC_SLOWDOWN,
+                String.format("Async logging costs %.1f%%, above the %.1f%% gate", asyncSlowdown, MAX_ASYNC_SLOWDOWN));
+    }
+
+    private int cycle(Mode mode) throws InterruptedException {
+        use(mode);
+        long submittedBefore = submitted.get();
+        long writtenBefore = written.get();
+        IngestionPipeline.CycleReport report = scheduledNewsService.refreshCountries(COUNTRIES, Priority.BACKGROUND);
+        // Let the async worker catch up, so its backlog isn't written during the next mode's cycle
+        while (async.getNumberOfElementsInQueue() > 0) {
+            Thread.sleep(5);
+        }
+        if (mode == Mode.ASYNC) {
+            // The worker may still be writing the last event it took off the queue
+            long deadline = System.nanoTime() + 1_000_000_000L;
+            while (written.get() - writtenBefore < submitted.get() - submittedBefore && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            long events = submitted.get() - submittedBefore;
+            asyncEvents += events;
+            asyncDropped += events - (written.get() - writtenBefore);
+        }
+        return report.totalSaved();
+    }
+
+    private void use(Mode mode) {
+        LogLevel level = mode == Mode.OFF ? LogLevel.WARN : LogLevel.DEBUG;
+        VERBOSE_LOGGERS.forEach(name -> loggingSystem.setLogLevel(name, level));
+
+        // Sync writes to the console appender from the logging thread, as before the async appender
+        root.detachAppender(async);
+        root.detachAppender(console);
+        root.addAppender(mode == Mode.SYNC ? console : async);
+    }
+
+    private static Filter<ILoggingEvent> counting(AtomicLong counter) {
+        Filter<ILoggingEvent> filter = new Filter<>() {
+            @Override
+            public FilterReply decide(ILoggingEvent event) {
+                counter.incrementAndGet();
+                return FilterReply.NEUTRAL;
+            }
+        };
+        filter.start();
+        return filter;
+    }
+
+    private static double rate(long[] total) {
+        return total[0] / (total[1] / 1e9);
+    }
+
+    private static double slowdown(double baseline, double rate) {
+        return 100.0 * (baseline - rate) / baseline;
+    }
+}
@@ -0,0 +1,85 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.services.NewsApiRateLimiter.Priority;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NewsApiRateLimiterTest {
+
+    private static NewsApiRateLimiter limiter(double perMinute, int burst) {
+        NewsApiRateLimiter limiter = new NewsApiRateLimiter();
+        ReflectionTestUtils.setField(limiter, "requestsPerMinute", perMinute);
+        ReflectionTestUtils.setField(limiter, "burst", burst);
+        limiter.initialize();
+        return limiter;
+    }
+
+    @Test
+    void releasesBurstThenPacesAtTheRate() {
+        NewsApiRateLimiter limiter = limiter(1200, 2); // 20/s
+
+        long start = System.nanoTime();
+        Flux.range(0, 6).flatMap(i -> limiter.acquire(Priority.BACKGROUND)).blockLast(Duration.ofSeconds(5));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        // 2 from the burst, then 4 at 50ms each
+        assertTrue(millis >= 180 && millis < 1000, "took " + millis + "ms");
+    }
+
+    @Test
+    void interactiveRequestsJumpTheQueue() {
+        NewsApiRateLimiter limiter = limiter(1200, 1);
+        limiter.acquire(Priority.BACKGROUND).block(); // Empty the bucket
+
+        List<String> order = new CopyOnWriteArrayList<>();
+        Mono<Void> background = Flux.range(1, 3)
+                .flatMap(i -> limiter.acquire(Priority.BACKGROUND).doOnSuccess(v -> order.add("background")))
+                .then();
+        Mono<Void> interactive = limiter.acquire(Priority.INTERACTIVE).doOnSuccess(v -> order.add("interactive"));
+
+        // Background callers queued first, interactive one second
+        Mono.when(background, interactive).block(Duration.ofSeconds(5));
+
+        assertEquals("interactive", order.get(0));
+        assertEquals(4, order.size());
+    }
+
+    @Test
+    void backsOffOn429AndQuotaHeaders() {
+        NewsApiRateLimiter limiter = limiter(6000, 5); // 100/s
+        HttpHeaders retryAfter = new HttpHeaders();
+        retryAfter.set(HttpHeaders.RETRY_AFTER, "1");
+
+        limiter.onResponse(429, retryAfter);
+        long start = System.nanoTime();
+        limiter.acquire(Priority.INTERACTIVE).block(Duration.ofSeconds(5));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(millis >= 900, "waited " + millis + "ms");
+        assertEquals(1, limiter.throttledCount());
+        assertEquals(3000, limiter.currentRatePerMinute(), 1); // Halved
+
+        // Successes win the rate back gradually
+        for (int i = 0; i < 20; i++) {
+            limiter.onResponse(200, new HttpHeaders());
+        }
+        assertEquals(6000, limiter.currentRatePerMinute(), 1);
+
+        // 30 requests left in the next 60s caps the rate at 30/min
+        HttpHeaders quota = new HttpHeaders();
+        quota.set("X-RateLimit-Remaining", "30");
+        quota.set("X-RateLimit-Reset", "60");
+        limiter.onResponse(200, quota);
+        assertEquals(30, limiter.currentRatePerMinute(), 1);
+    }
+}
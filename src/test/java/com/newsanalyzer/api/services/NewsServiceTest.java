@@ -0,0 +1,157 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.models.ArticleCursor;
+import com.newsanalyzer.api.models.ArticlePage;
+import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.repositories.NewsArticleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class NewsServiceTest {
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private NewsArticleRepository newsRepository;
+
+    @Test
+    void saveArticlesSkipsKnownAndRepeatedArticles() {
+        List<NewsArticle> first = List.of(article("xa", "a"), article("xa", "b"), article("xa", "c"));
+        assertEquals(3, newsService.saveArticles(first).size());
+
+        List<NewsArticle> second = new ArrayList<>();
+        second.add(article("xa", "a"));       // already stored
+        second.add(article("xa", "d"));       // new
+        second.add(article("xa", "d"));       // repeated within the batch
+        second.add(article("xb", "a"));       // same url, other country
+        assertEquals(List.of("xa|d", "xb|a"), keys(newsService.saveArticles(second)));
+
+        // Still holds after the filter is rebuilt from the table
+        newsService.rebuildArticleFilter();
+        List<NewsArticle> third = List.of(article("xa", "b"), article("xb", "a"), article("xa", "e"));
+        assertEquals(List.of("xa|e"), keys(newsService.saveArticles(third)));
+    }
+
+    @Test
+    void recheckCatchesRowsTheFilterNeverSaw() {
+        // Stored behind the service's back, so the filter has no record of it
+        newsRepository.save(article("xd", "a"));
+
+        List<NewsArticle> batch = List.of(article("xd", "a"), article("xd", "b"));
+        assertEquals(List.of("xd|b"), keys(newsService.recheckNewArticles(batch)));
+        // The recheck taught the filter about it, so the plain path catches it too
+        assertEquals(List.of("xd|b"), keys(newsService.filterNewArticles(batch)));
+    }
+
+    @Test
+    void keysetPagesWalkTheFeedNewestFirstWithoutGapsOrRepeats() {
+        LocalDateTime base = LocalDateTime.now().withNano(0);
+        List<NewsArticle> articles = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            NewsArticle article = article("xc", "page-" + i);
+            article.setPublishedAt(base.minusMinutes(i / 3)); // Groups of three share a timestamp
+            article.setSentiment(i % 2 == 0 ? "POSITIVE" : "NEGATIVE");
+            articles.add(article);
+        }
+        newsService.saveArticles(articles);
+
+        List<NewsArticle> expected = newsService.getNewsByCountryAndSentiment("xc", null).stream()
+                .sorted(Comparator.comparing(ArticleCursor::of))
+                .toList();
+        assertEquals(11, expected.size());
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ArticlePage page = newsService.getNewsPage("xc", null, cursor, 4);
+            assertTrue(page.articles().size() <= 4);
+            page.articles().forEach(article -> seen.add(article.id()));
+            cursor = page.nextCursor();
+            assertEquals(page.hasMore(), cursor != null);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(expected.stream().map(NewsArticle::getId).toList(), seen);
+
+        ArticlePage positive = newsService.getNewsPage("xc", "POSITIVE", null, 100);
+        assertEquals(6, positive.articles().size());
+        assertFalse(positive.hasMore());
+
+        assertThrows(IllegalArgumentException.class, () -> newsService.getNewsPage("xc", null, "not a cursor", 4));
+    }
+
+    @Test
+    void sentimentStatsFollowSavesAndCleanupWithoutQueryingArticles() {
+        LocalDateTime now = LocalDateTime.now();
+        String[] sentiments = {"POSITIVE", "NEGATIVE", "NEUTRAL"};
+        List<NewsArticle> articles = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            NewsArticle article = article("xf", "stats-" + i);
+            article.setPublishedAt(now.minusMinutes(17L * i)); // Spans the 24h cleanup cutoff
+            article.setSentimentData(sentiments[i % 3], i % 7 == 0 ? null : (i % 11) / 10.0 - 0.5, 0.3 + (i % 5) / 10.0);
+            articles.add(article);
+        }
+        newsService.saveArticles(articles);
+        assertStatsMatchTable("xf");
+
+        newsService.cleanupOldArticles();
+        assertTrue(newsRepository.findByCountry("xf").size() < 120);
+        assertStatsMatchTable("xf");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertStatsMatchTable(String country) {
+        List<NewsArticle> rows = newsRepository.findByCountry(country);
+        Map<String, Object> stats = newsService.getDetailedSentimentStats(country);
+        Map<String, Long> counts = (Map<String, Long>) stats.get("counts");
+        Map<String, Double> averageScores = (Map<String, Double>) stats.get("averageScores");
+        Map<String, Double> averageConfidence = (Map<String, Double>) stats.get("averageConfidence");
+
+        Map<String, Long> expectedCounts = rows.stream()
+                .collect(Collectors.groupingBy(NewsArticle::getSentiment, Collectors.counting()));
+        assertEquals(expectedCounts, counts);
+        assertEquals(expectedCounts, newsService.getSentimentCounts(country));
+        assertEquals(rows.size(), stats.get("totalArticles"));
+
+        Map<String, Double> expectedScores = rows.stream()
+                .filter(a -> a.getSentimentScore() != null)
+                .collect(Collectors.groupingBy(NewsArticle::getSentiment, Collectors.averagingDouble(NewsArticle::getSentimentScore)));
+        Map<String, Double> expectedConfidence = rows.stream()
+                .collect(Collectors.groupingBy(NewsArticle::getSentiment, Collectors.averagingDouble(NewsArticle::getSentimentConfidence)));
+        assertEquals(expectedScores.keySet(), averageScores.keySet());
+        expectedScores.forEach((sentiment, average) -> assertEquals(average, averageScores.get(sentiment), 1e-9));
+        expectedConfidence.forEach((sentiment, average) -> assertEquals(average, averageConfidence.get(sentiment), 1e-9));
+    }
+
+    private static NewsArticle article(String country, String slug) {
+        NewsArticle article = new NewsArticle();
+        article.setTitle("Dedupe test " + slug);
+        article.setUrl("https://dedupe.test/" + slug);
+        article.setCountry(country);
+        article.setPublishedAt(LocalDateTime.now());
+        return article;
+    }
+
+    private static List<String> keys(List<NewsArticle> articles) {
+        return articles.stream()
+                .map(article -> article.getCountry() + "|" + article.getUrl().substring("https://dedupe.test/".length()))
+                .toList();
+    }
+}
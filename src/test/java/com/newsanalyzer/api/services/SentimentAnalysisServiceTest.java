@@ -0,0 +1,92 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.config.AsyncConfig;
+import com.newsanalyzer.api.config.CacheConfig;
+import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.models.SentimentLabel;
+import com.newsanalyzer.api.services.SentimentAnalysisService.SentimentResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringJUnitConfig({SentimentAnalysisService.class, CacheConfig.class, AsyncConfig.class,
+        NewsMetrics.class, SimpleMeterRegistry.class})
+class SentimentAnalysisServiceTest {
+
+    @Autowired
+    private SentimentAnalysisService sentimentAnalysisService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void batchResultsLineUpWithInputIncludingDuplicates() {
+        List<String> texts = List.of("Great news", "Terrible crisis", "Great news", "", "great NEWS!", "Terrible crisis");
+
+        List<SentimentResult> results = sentimentAnalysisService.analyzeBatch(texts);
+
+        assertEquals(texts.size(), results.size());
+        for (int i = 0; i < texts.size(); i++) {
+            assertSameResult(sentimentAnalysisService.analyzeSentiment(texts.get(i)), results.get(i));
+        }
+        assertEquals("POSITIVE", results.get(0).getSentiment());
+        assertEquals("NEGATIVE", results.get(5).getSentiment());
+        assertEquals("NEUTRAL", results.get(3).getSentiment());
+    }
+
+    @Test
+    void largeBatchesAreScoredInParallelAndCached() {
+        MockNewsService mockNewsService = new MockNewsService();
+        List<String> texts = new ArrayList<>();
+        for (NewsArticle article : mockNewsService.generateMockNews("us", 2_000)) {
+            texts.add(article.getTitle() + " " + article.getDescription());
+        }
+
+        List<SentimentResult> first = sentimentAnalysisService.analyzeBatch(texts);
+
+        var nativeCache = ((CaffeineCache) cacheManager.getCache("sentimentCache")).getNativeCache();
+        long hitsBefore = nativeCache.stats().hitCount();
+        List<SentimentResult> second = sentimentAnalysisService.analyzeBatch(texts);
+
+        assertTrue(nativeCache.stats().hitCount() > hitsBefore);
+        for (int i = 0; i < texts.size(); i++) {
+            assertSameResult(first.get(i), second.get(i));
+            assertSameResult(sentimentAnalysisService.analyzeSentiment(texts.get(i)), first.get(i));
+        }
+    }
+
+    @Test
+    void columnarBatchMatchesObjectBatchAndAggregates() {
+        List<String> texts = List.of("Great news", "Terrible crisis", "Great news", "", "Council meets Tuesday");
+
+        SentimentBatch batch = sentimentAnalysisService.analyzeBatchColumnar(texts);
+        List<SentimentResult> results = sentimentAnalysisService.analyzeBatch(texts);
+
+        assertEquals(texts.size(), batch.size());
+        for (int i = 0; i < texts.size(); i++) {
+            assertSameResult(results.get(i), batch.result(i));
+        }
+
+        long[] counts = batch.countsByLabel();
+        assertEquals(2, counts[SentimentLabel.POSITIVE.ordinal()]);
+        assertEquals(1, counts[SentimentLabel.NEGATIVE.ordinal()]);
+        assertEquals(2, counts[SentimentLabel.NEUTRAL.ordinal()]);
+        assertEquals(0, counts[SentimentLabel.PROCESSING.ordinal()]);
+        assertEquals(2 * results.get(0).getScore(), batch.scoreSumsByLabel()[SentimentLabel.POSITIVE.ordinal()], 1e-12);
+    }
+
+    private static void assertSameResult(SentimentResult expected, SentimentResult actual) {
+        assertEquals(expected.getSentiment(), actual.getSentiment());
+        assertEquals(expected.getScore(), actual.getScore(), 0.0);
+        assertEquals(expected.getConfidence(), actual.getConfidence(), 0.0);
+    }
+}
@@ -0,0 +1,93 @@
+package com.newsanalyzer.api.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SentimentLexiconTest {
+
+    @Test
+    void resolvesEveryWordOfALargeLexicon() {
+        Random random = new Random(7);
+        Map<String, Double> positive = new HashMap<>();
+        Map<String, Double> negative = new HashMap<>();
+        SentimentLexicon.Builder builder = SentimentLexicon.builder();
+
+        while (positive.size() + negative.size() < 50_000) {
+            String word = randomWord(random);
+            double weight = (1 + random.nextInt(10)) / 10.0;
+            if (random.nextBoolean()) {
+                positive.put(word, weight);
+                builder.positive(word, weight);
+            } else {
+                negative.put(word, weight);
+                builder.negative(word, weight);
+            }
+        }
+        SentimentLexicon lexicon = builder.build();
+
+        positive.forEach((word, weight) -> {
+            int code = lexicon.lookup(word);
+            assertTrue(SentimentLexicon.is(code, SentimentLexicon.POSITIVE), word);
+            if (!negative.containsKey(word)) {
+                assertFalse(SentimentLexicon.is(code, SentimentLexicon.NEGATIVE), word);
+            }
+            assertEquals(weight, lexicon.positiveWeight(code), 0.0, word);
+        });
+        negative.forEach((word, weight) -> {
+            int code = lexicon.lookup(word);
+            assertTrue(SentimentLexicon.is(code, SentimentLexicon.NEGATIVE), word);
+            assertEquals(weight, lexicon.negativeWeight(code), 0.0, word);
+        });
+
+        for (int i = 0; i < 50_000; i++) {
+            String word = randomWord(random);
+            if (!positive.containsKey(word) && !negative.containsKey(word)) {
+                assertEquals(0, lexicon.lookup(word), word);
+            }
+        }
+    }
+
+    @Test
+    void looksUpSlicesAndMergesClasses() {
+        SentimentLexicon lexicon = SentimentLexicon.builder()
+                .positive("good", 0.7)
+                .positive("good", 1.0)
+                .negator("no")
+                .negator("not")
+                .negator("don't")
+                .intensifier("very")
+                .build();
+
+        assertEquals(4, lexicon.size());
+
+        char[] text = "a very good day, not".toCharArray();
+        int good = lexicon.lookup(text, 7, 11);
+        assertTrue(SentimentLexicon.is(good, SentimentLexicon.POSITIVE));
+        assertEquals(1.0, lexicon.positiveWeight(good), 0.0);
+        assertTrue(SentimentLexicon.is(lexicon.lookup(text, 2, 6), SentimentLexicon.INTENSIFIER));
+        assertTrue(SentimentLexicon.is(lexicon.lookup("xnotx", 1, 4), SentimentLexicon.NEGATOR));
+
+        // Prefixes, extensions and non-normalized input are misses
+        assertEquals(0, lexicon.lookup("goo"));
+        assertEquals(0, lexicon.lookup("goods"));
+        assertEquals(0, lexicon.lookup("Good"));
+        assertEquals(0, lexicon.lookup("don't"));
+        assertEquals(0, lexicon.lookup(""));
+    }
+
+    private static String randomWord(Random random) {
+        int length = 2 + random.nextInt(12);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+}
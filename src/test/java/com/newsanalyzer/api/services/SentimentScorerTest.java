@@ -0,0 +1,123 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.services.SentimentAnalysisService.SentimentResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class SentimentScorerTest {
+
+    // Fragments that exercise every rule of the original pipeline, glued together at random
+    private static final String[] FRAGMENTS = {
+        "good", "great", "bad", "terrible", "crisis", "not", "never", "very", "extremely",
+        "don't", "can't", "a", "I", "Good", "EXCELLENT", "Very", "NOT", "news", "win", "lose",
+        " ", "  ", "\t", "\n", "\r\n", "\u000B", "\f", " ", "\u0001",
+        "http://", "https://", "http", "https://example.com/a?b=c&amp;d", "HTTP://x.com",
+        "http:// ", "://", "@", "#", "@user", "#tag", "#1", "@_", "##", "@@",
+        "&amp;", "&lt;", "&quot;", "&nbsp;", "&eacute;", "&#39;", "&#x27;", "&#;", "&", ";",
+        "&AMP;", "&bogus;", "!", "?", ".", ",", "-", "'", "\"", "_", "9", "42",
+        "café", "İ", "K", "É", "😀", "naïve"
+    };
+
+    private SentimentAnalysisService service;
+    private LegacySentimentReference reference;
+
+    @BeforeEach
+    void setUp() {
+        service = new SentimentAnalysisService();
+        ReflectionTestUtils.setField(service, "newsMetrics", new NewsMetrics(new SimpleMeterRegistry()));
+        service.initializeLexicons();
+        reference = new LegacySentimentReference();
+    }
+
+    @Test
+    void matchesOriginalPipelineOnMockHeadlines() {
+        MockNewsService mockNewsService = new MockNewsService();
+        for (String country : mockNewsService.getSupportedCountries()) {
+            for (NewsArticle article : mockNewsService.generateMockNews(country, 50)) {
+                assertSameResult(article.getTitle());
+                assertSameResult(article.getTitle() + " " + article.getDescription());
+            }
+        }
+    }
+
+    @Test
+    void matchesOriginalPipelineOnEdgeCases() {
+        List<String> texts = List.of(
+            "", " ", "!!!", "a b c", "not good", "not a good", "very bad", "very very bad",
+            "good http://spam.com/good bad", "@goodguy is bad", "#good#bad", "@http://x good",
+            "#https://x.com good", "goodhttp://x.com", "@foohttp://x.com/terrible",
+            "go&amp;od", "&amp;amp;good", "&#64;good", "&amp;#bad good", "not good",
+            "İssue", "Kind of great", "excellent!!! (really)", "don't like it",
+            "http://", "https:// good", "@ good", "# bad"
+        );
+        texts.forEach(this::assertSameResult);
+    }
+
+    @Test
+    void matchesOriginalPipelineOnRandomText() {
+        Random random = new Random(42);
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder text = new StringBuilder();
+            int fragments = 1 + random.nextInt(12);
+            for (int j = 0; j < fragments; j++) {
+                text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                if (random.nextBoolean()) {
+                    text.append(' ');
+                }
+            }
+            texts.add(text.toString());
+        }
+        texts.forEach(this::assertSameResult);
+    }
+
+    @Test
+    void cacheKeysHashTheRawText() {
+        assertEquals(0L, SentimentScorer.cacheKey(null));
+        assertEquals(0L, SentimentScorer.cacheKey("  \t"));
+        assertNotEquals(0L, SentimentScorer.cacheKey("!!!"));
+
+        long key = SentimentScorer.cacheKey("Very good news");
+        assertEquals(key, SentimentScorer.cacheKey(new String("Very good news")));
+        assertNotEquals(key, SentimentScorer.cacheKey("very good news"));
+        assertNotEquals(key, SentimentScorer.cacheKey("Very good news "));
+
+        // Distinct texts must get distinct keys, or the cache would serve the wrong result
+        Random random = new Random(11);
+        Map<Long, String> seen = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            String text = FRAGMENTS[random.nextInt(FRAGMENTS.length)] + " " + FRAGMENTS[random.nextInt(FRAGMENTS.length)]
+                    + " " + FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+            long textKey = SentimentScorer.cacheKey(text);
+            if (textKey == 0L) {
+                continue; // Blank: every blank text shares key 0 and scores neutral
+            }
+            String previous = seen.putIfAbsent(textKey, text);
+            if (previous != null) {
+                assertEquals(previous, text);
+            }
+        }
+    }
+
+    private void assertSameResult(String text) {
+        SentimentResult expected = reference.analyzeSentiment(text);
+        SentimentResult actual = service.analyzeSentiment(text);
+
+        assertEquals(expected.getSentiment(), actual.getSentiment(), () -> "sentiment for: " + text);
+        // Bitwise comparison: the scores must be identical, NaN included
+        assertEquals(expected.getScore(), actual.getScore(), 0.0, () -> "score for: " + text);
+        assertEquals(expected.getConfidence(), actual.getConfidence(), 0.0, () -> "confidence for: " + text);
+    }
+}
@@ -0,0 +1,79 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.models.NewsArticle;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SentimentStatsStoreTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Test
+    void addsReplacesAndPurgesExactly() {
+        SentimentStatsStore store = new SentimentStatsStore();
+        NewsArticle early = article("POSITIVE", 0.6, 0.9, NOON.minusHours(3));
+        NewsArticle cutoffHour = article("POSITIVE", 0.2, 0.5, NOON.plusMinutes(10));
+        NewsArticle late = article("NEGATIVE", null, 0.7, NOON.plusMinutes(50));
+        store.add(early);
+        store.add(cutoffHour);
+        store.add(late);
+
+        SentimentStatsStore.Totals positive = store.totalsBySentiment("us", null).get("POSITIVE");
+        assertEquals(2, positive.count());
+        assertEquals(0.4, positive.averageScore(), 1e-12);
+        assertNull(store.totalsBySentiment("us", null).get("NEGATIVE").averageScore());
+
+        // Rescore: moves the article from POSITIVE to NEGATIVE
+        cutoffHour.setSentimentData("NEGATIVE", -0.4, 0.8);
+        store.replace(cutoffHour, "POSITIVE", 0.2, 0.5);
+        Map<String, SentimentStatsStore.Totals> totals = store.totalsBySentiment("us", null);
+        assertEquals(1, totals.get("POSITIVE").count());
+        assertEquals(2, totals.get("NEGATIVE").count());
+        assertEquals(-0.4, totals.get("NEGATIVE").averageScore(), 1e-12);
+        assertEquals(0.75, totals.get("NEGATIVE").averageConfidence(), 1e-12);
+
+        // Purge everything before 12:30: 09:00 goes with its hour, 12:10 is subtracted as a row
+        LocalDateTime cutoff = NOON.plusMinutes(30);
+        store.purge(cutoff, List.<Object[]>of(new Object[] {"us", "NEGATIVE", cutoffHour.getPublishedAt(), -0.4, 0.8}));
+        totals = store.totalsBySentiment("us", null);
+        assertFalse(totals.containsKey("POSITIVE"));
+        assertEquals(1, totals.get("NEGATIVE").count());
+        assertEquals(0.7, totals.get("NEGATIVE").averageConfidence(), 1e-12);
+        assertEquals(totals, store.totalsBySentiment("us", NOON));
+        assertEquals(Map.of(), store.totalsBySentiment("us", NOON.plusHours(1)));
+        assertEquals(Map.of(), store.totalsBySentiment("gb", null));
+    }
+
+    @Test
+    void nonFiniteScoresDoNotPoisonTheAverages() {
+        SentimentStatsStore store = new SentimentStatsStore();
+        NewsArticle unscorable = article("NEUTRAL", Double.NaN, Double.NaN, NOON);
+        store.add(unscorable);
+        store.add(article("NEUTRAL", 0.2, 0.5, NOON.plusMinutes(5)));
+
+        SentimentStatsStore.Totals neutral = store.totalsBySentiment("us", null).get("NEUTRAL");
+        assertEquals(2, neutral.count());
+        assertEquals(0.2, neutral.averageScore(), 1e-12);
+        assertEquals(0.5, neutral.averageConfidence(), 1e-12);
+
+        store.remove(unscorable);
+        neutral = store.totalsBySentiment("us", null).get("NEUTRAL");
+        assertEquals(1, neutral.count());
+        assertEquals(0.2, neutral.averageScore(), 1e-12);
+    }
+
+    private static NewsArticle article(String sentiment, Double score, Double confidence, LocalDateTime publishedAt) {
+        NewsArticle article = new NewsArticle();
+        article.setCountry("us");
+        article.setPublishedAt(publishedAt);
+        article.setSentimentData(sentiment, score, confidence);
+        return article;
+    }
+}
@@ -0,0 +1,102 @@
+package com.newsanalyzer.api.services;
+
+import com.newsanalyzer.api.models.NewsArticle;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SentimentTrendSeriesTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 12, 7);
+
+    @Test
+    void bucketsByPublicationTimeAndRollsOffAfterRetention() {
+        SentimentTrendSeries series = new SentimentTrendSeries();
+        series.setClock(clockAt(NOW));
+        series.initialize();
+
+        series.record(List.of(
+                article("POSITIVE", 0.5, NOW.minusMinutes(2)),
+                article("NEGATIVE", -0.3, NOW.minusMinutes(4)),
+                article("POSITIVE", null, NOW.minusMinutes(70)),
+                article("NEUTRAL", 0.0, NOW.minusHours(30)),   // Outside the window
+                article("POSITIVE", 0.9, NOW.plusMinutes(20))  // Future: counts as now
+        ));
+
+        List<SentimentTrendSeries.TrendPoint> hourly = series.trend("us", Duration.ofHours(3), Duration.ofHours(1));
+        assertEquals(3, hourly.size());
+        assertEquals(LocalDateTime.of(2025, 3, 1, 9, 10), hourly.get(0).start());
+        assertEquals(0, hourly.get(0).total());
+        assertNull(hourly.get(0).meanScore());
+
+        SentimentTrendSeries.TrendPoint previousHour = hourly.get(1);
+        assertEquals(1, previousHour.counts().get("POSITIVE"));
+        assertNull(previousHour.meanScore());
+
+        SentimentTrendSeries.TrendPoint lastHour = hourly.get(2);
+        assertEquals(2L, lastHour.counts().get("POSITIVE"));
+        assertEquals(1L, lastHour.counts().get("NEGATIVE"));
+        assertEquals(0L, lastHour.counts().get("NEUTRAL"));
+        assertEquals((0.5 - 0.3 + 0.9) / 3, lastHour.meanScore(), 1e-12);
+
+        List<SentimentTrendSeries.TrendPoint> fiveMinute = series.trend("us", Duration.ofHours(24), Duration.ofMinutes(5));
+        assertEquals(288, fiveMinute.size());
+        assertEquals(4, fiveMinute.stream().mapToLong(SentimentTrendSeries.TrendPoint::total).sum());
+
+        // A day later the same slots are reused and the old counts no longer show
+        series.setClock(clockAt(NOW.plusHours(24)));
+        series.record(List.of(article("NEGATIVE", -1.0, NOW.plusHours(24).minusMinutes(1))));
+        fiveMinute = series.trend("us", Duration.ofHours(24), Duration.ofMinutes(5));
+        assertEquals(1, fiveMinute.stream().mapToLong(SentimentTrendSeries.TrendPoint::total).sum());
+        assertEquals(0, series.trend("gb", Duration.ofHours(1), Duration.ofMinutes(5)).stream()
+                .mapToLong(SentimentTrendSeries.TrendPoint::total).sum());
+    }
+
+    @Test
+    void countsNonFiniteScoresAsUnscored() {
+        SentimentTrendSeries series = new SentimentTrendSeries();
+        series.setClock(clockAt(NOW));
+        series.initialize();
+
+        series.record(List.of(
+                article("NEUTRAL", Double.NaN, NOW.minusMinutes(1)),
+                article("POSITIVE", 0.4, NOW.minusMinutes(2))
+        ));
+
+        SentimentTrendSeries.TrendPoint lastHour = series.trend("us", Duration.ofHours(1), Duration.ofHours(1)).get(0);
+        assertEquals(2, lastHour.total());
+        assertEquals(0.4, lastHour.meanScore(), 1e-12);
+    }
+
+    @Test
+    void rejectsStepsAndWindowsThatDontFitTheBuckets() {
+        SentimentTrendSeries series = new SentimentTrendSeries();
+        series.setClock(clockAt(NOW));
+        series.initialize();
+
+        assertThrows(IllegalArgumentException.class, () -> series.trend("us", Duration.ofHours(1), Duration.ofMinutes(7)));
+        assertThrows(IllegalArgumentException.class, () -> series.trend("us", Duration.ofHours(25), Duration.ofHours(1)));
+        assertThrows(IllegalArgumentException.class, () -> series.trend("us", Duration.ofMinutes(50), Duration.ofMinutes(15)));
+    }
+
+    private static Clock clockAt(LocalDateTime time) {
+        return Clock.fixed(Instant.ofEpochSecond(time.toEpochSecond(ZoneOffset.UTC)), ZoneOffset.UTC);
+    }
+
+    private static NewsArticle article(String sentiment, Double score, LocalDateTime publishedAt) {
+        NewsArticle article = new NewsArticle();
+        article.setCountry("us");
+        article.setPublishedAt(publishedAt);
+        article.setSentimentData(sentiment, score, 0.5);
+        return article;
+    }
+}
@@ -0,0 +1,124 @@
+package com.newsanalyzer.api.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsanalyzer.api.models.NewsArticle;
+import com.newsanalyzer.api.models.SentimentLabel;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticCorpusTest {
+
+    private static final LocalDateTime UNTIL = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private final MockNewsService mockNewsService = new MockNewsService();
+
+    @Test
+    void sameSeedGivesTheSameCorpusHoweverItIsSplit() {
+        SyntheticCorpus corpus = corpus(7).build();
+
+        List<String> sequential = corpus.stream(5_000).map(SyntheticCorpusTest::describe).toList();
+        List<String> parallel = corpus.stream(5_000).parallel().map(SyntheticCorpusTest::describe).toList();
+        List<String> rebuilt = corpus(7).build().stream(5_000).map(SyntheticCorpusTest::describe).toList();
+
+        assertEquals(sequential, parallel);
+        assertEquals(sequential, rebuilt);
+        assertNotEquals(sequential, corpus(8).build().stream(5_000).map(SyntheticCorpusTest::describe).toList());
+        // Global index i is country i % n, so per-country streams line up with the interleaved one
+        assertEquals(describe(corpus.article(3 * 7 + 2)), describe(corpus.article(corpus.getCountries().get(2), 3)));
+    }
+
+    @Test
+    void streamsCanBeDatedRelativeToEachFetch() {
+        SyntheticCorpus corpus = corpus(7).build();
+        LocalDateTime later = UNTIL.plusDays(3);
+
+        List<NewsArticle> anchored = corpus.stream("us", 100, 50).toList();
+        List<NewsArticle> moved = corpus.stream("us", 100, 50, later).toList();
+        for (int i = 0; i < anchored.size(); i++) {
+            // Same article, shifted by exactly the difference between the two anchors
+            assertEquals(anchored.get(i).getUrl(), moved.get(i).getUrl());
+            assertEquals(anchored.get(i).getPublishedAt().plusDays(3), moved.get(i).getPublishedAt());
+        }
+    }
+
+    @Test
+    void followsTheConfiguredMixDuplicatesAndPublishTimes() {
+        SyntheticCorpus corpus = corpus(1)
+                .sentimentMix(60, 20, 20)
+                .descriptionSentences(1, 4)
+                .duplicateRate(0.1)
+                .publishTimes(Duration.ofHours(2), 3, UNTIL)
+                .build();
+        Set<String> positive = new HashSet<>(mockNewsService.getHeadlines(SentimentLabel.POSITIVE));
+
+        int count = 20_000;
+        Set<String> urls = new HashSet<>();
+        int positives = 0;
+        int lastHalfHour = 0;
+        for (NewsArticle article : corpus.stream(count).toList()) {
+            if (!urls.add(article.getUrl())) {
+                continue; // Only count each distinct article once
+            }
+            String headline = article.getTitle().split(" - ")[0];
+            positives += positive.contains(headline) ? 1 : 0;
+            // Every template ends in two sentences, then one to four extra ones
+            long sentences = article.getDescription().chars().filter(c -> c == '.').count();
+            assertTrue(sentences >= 3 && sentences <= 6, article.getDescription());
+            assertFalse(article.getPublishedAt().isAfter(UNTIL));
+            assertFalse(article.getPublishedAt().isBefore(UNTIL.minusHours(2)));
+            lastHalfHour += article.getPublishedAt().isAfter(UNTIL.minusMinutes(30)) ? 1 : 0;
+        }
+
+        double unique = urls.size() / (double) count;
+        assertTrue(Math.abs(unique - 0.9) < 0.02, "unique share " + unique);
+        double positiveShare = positives / (double) urls.size();
+        assertTrue(Math.abs(positiveShare - 0.6) < 0.03, "positive share " + positiveShare);
+        // Skew 3: P(age < window / 4) = (1/4)^(1/3), about 63%
+        double recentShare = lastHalfHour / (double) urls.size();
+        assertTrue(Math.abs(recentShare - 0.63) < 0.03, "last half hour " + recentShare);
+    }
+
+    @Test
+    void writesJsonLinesInCorpusOrder() throws Exception {
+        SyntheticCorpus corpus = corpus(3).duplicateRate(0.05).build();
+        StringWriter out = new StringWriter();
+
+        // More than one generation block, on several threads
+        assertEquals(10_000, corpus.writeJsonLines(out, 10_000, 4));
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(10_000, lines.length);
+        ObjectMapper mapper = new ObjectMapper();
+        for (int i : new int[] {0, 8_191, 8_192, 9_999}) {
+            JsonNode line = mapper.readTree(lines[i]);
+            NewsArticle article = corpus.article(i);
+            assertEquals(article.getUrl(), line.get("url").asText());
+            assertEquals(article.getDescription(), line.get("description").asText());
+            assertEquals(article.getPublishedAt().toString(), line.get("publishedAt").asText());
+        }
+    }
+
+    private SyntheticCorpus.Builder corpus(long seed) {
+        return SyntheticCorpus.builder(mockNewsService)
+                .seed(seed)
+                .duplicateRate(0.05)
+                .publishTimes(Duration.ofHours(6), 1, UNTIL);
+    }
+
+    private static String describe(NewsArticle article) {
+        return article.getCountry() + "|" + article.getUrl() + "|" + article.getTitle() + "|"
+                + article.getDescription() + "|" + article.getPublishedAt();
+    }
+}